@@ -0,0 +1,85 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds the schema with a synthetic dataset of the given number of bookings; the other tables are scaled from it.
+ * User 1 is a heavy booker (every tenth booking) and user 2 a heavy owner (every tenth item),
+ * so the per-user queries have deep result sets to page through.
+ */
+class BenchmarkData {
+    static final long HEAVY_BOOKER = 1L;
+    static final long HEAVY_OWNER = 2L;
+    static final String SEARCH_WORD = "дрель";
+
+    private static final String[] WORDS = {"дрель", "пила", "палатка", "велосипед", "лестница", "перфоратор", "байдарка"};
+    private static final int CHUNK = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int users;
+    private final int items;
+    private final int requests;
+    private final int bookings;
+    private final int comments;
+
+    BenchmarkData(JdbcTemplate jdbcTemplate, int bookings) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bookings = bookings;
+        this.users = Math.max(10, bookings / 100);
+        this.items = Math.max(10, bookings / 10);
+        this.requests = Math.max(10, bookings / 10);
+        this.comments = Math.max(10, bookings / 10);
+    }
+
+    int heavyBookerBookings() {
+        return (bookings + 9) / 10;
+    }
+
+    void seed() {
+        LocalDateTime base = LocalDateTime.now().withNano(0);
+        insert("insert into users (id, user_name, email) values (?, ?, ?)", users,
+                i -> new Object[]{i, "user" + i, "user" + i + "@bench.ru"});
+        insert("insert into requests (id, description, created, requestor_id) values (?, ?, ?, ?)", requests,
+                i -> new Object[]{i, "нужна " + WORDS[(int) (i % WORDS.length)], Timestamp.valueOf(base.minusMinutes(i)), i % users + 1});
+        insert("insert into items (id, item_name, description, available, owner_id, request_id) values (?, ?, ?, ?, ?, ?)", items,
+                i -> new Object[]{i, "Вещь " + i, WORDS[(int) (i % WORDS.length)] + " модель " + i, i % 5 != 0,
+                        i % 10 == 0 ? HEAVY_OWNER : i % users + 1, i % 10 == 1 && i / 10 < requests ? i / 10 + 1 : null});
+        insert("insert into item_booking_summary (item_id, valid_until) values (?, ?)", items,
+                i -> new Object[]{i, Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0))});
+        insert("insert into booking (id, booking_start, booking_end, item_id, booker_id, status) values (?, ?, ?, ?, ?, ?)", bookings,
+                i -> new Object[]{i, Timestamp.valueOf(base.plusHours(i % 20_000 - 10_000)),
+                        Timestamp.valueOf(base.plusHours(i % 20_000 - 10_000 + 24)), i % items + 1,
+                        i % 10 == 0 ? HEAVY_BOOKER : i % users + 1, i % 3 == 0 ? "WAITING" : "APPROVED"});
+        insert("insert into comments (id, comment_text, item_id, author_id) values (?, ?, ?, ?)", comments,
+                i -> new Object[]{i, "отзыв " + i, i % items + 1, i % users + 1});
+        restart("users_seq", users);
+        restart("requests_seq", requests);
+        restart("items_seq", items);
+        restart("booking_seq", bookings);
+        restart("comments_seq", comments);
+    }
+
+    private void insert(String sql, int count, Row row) {
+        List<Object[]> batch = new ArrayList<>(CHUNK);
+        for (long i = 1; i <= count; i++) {
+            batch.add(row.values(i));
+            if (batch.size() == CHUNK || i == count) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void restart(String sequence, int rows) {
+        jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (rows + 1));
+    }
+
+    private interface Row {
+        Object[] values(long i);
+    }
+}
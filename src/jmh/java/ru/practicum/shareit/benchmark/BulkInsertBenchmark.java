@@ -0,0 +1,126 @@
+package ru.practicum.shareit.benchmark;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.BookStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJpaRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk insert of items with a booking each, through the entity manager, by id generator and JDBC batch size.
+ * {@code sequence} is the pooled sequence of the application entities, {@code identity} the same rows in
+ * {@link IdentityItem} and {@link IdentityBooking}: Hibernate needs the id of every IDENTITY row back at once,
+ * so it cannot batch them whatever the batch size. The statements counter is the number of prepared statements
+ * of the last insert of an iteration, and the summary adds it up over the iterations.
+ * Run with {@code mvn -P jmh test-compile exec:exec -Djmh.args="BulkInsertBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BulkInsertBenchmark {
+    private static final int ROWS = 1_000;
+
+    @Param({"sequence", "identity"})
+    private String generator;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Statements {
+        public long statements;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:jmh-insert;DB_CLOSE_DELAY=-1",
+                        "spring.flyway.locations=classpath:db/migration/common,classpath:db/migration/{vendor}",
+                        "shareit.hibernate-statistics.enabled=true",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.execute("create table identity_items (id bigint generated by default as identity primary key, " +
+                "item_name varchar(255) not null, description varchar(512), available boolean, " +
+                "owner_id bigint references users (id))");
+        jdbcTemplate.execute("create table identity_booking (id bigint generated by default as identity primary key, " +
+                "booking_start timestamp, booking_end timestamp, item_id bigint references identity_items (id), " +
+                "booker_id bigint references users (id), status varchar(10))");
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        UserJpaRepository userRepository = context.getBean(UserJpaRepository.class);
+        owner = userRepository.save(new User(null, "owner", "owner@benchmark.test"));
+        booker = userRepository.save(new User(null, "booker", "booker@benchmark.test"));
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteRows() {
+        jdbcTemplate.execute("delete from identity_booking");
+        jdbcTemplate.execute("delete from identity_items");
+        jdbcTemplate.execute("delete from booking");
+        jdbcTemplate.execute("delete from item_booking_summary");
+        jdbcTemplate.execute("delete from items");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void insert(Statements counters) {
+        statistics.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            LocalDateTime start = LocalDateTime.now().plusDays(1);
+            for (int i = 0; i < ROWS; i++) {
+                if ("identity".equals(generator)) {
+                    IdentityItem item = new IdentityItem(null, "Дрель " + i, "Дрель аккумуляторная " + i, true, owner);
+                    entityManager.persist(item);
+                    entityManager.persist(new IdentityBooking(null, start, start.plusDays(1), item, booker, BookStatus.WAITING));
+                } else {
+                    Item item = new Item(null, "Дрель " + i, "Дрель аккумуляторная " + i, true, owner, null);
+                    entityManager.persist(item);
+                    entityManager.persist(new Booking(null, start, start.plusDays(1), item, booker, BookStatus.WAITING));
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+        counters.statements = statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.benchmark;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.*;
+
+/**
+ * {@link ru.practicum.shareit.item.model.Item} with an IDENTITY id, for {@link BulkInsertBenchmark} only;
+ * its table is created by the benchmark.
+ */
+@Entity
+@Table(name = "identity_items")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdentityItem {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "item_name")
+    private String name;
+    @Column(name = "description")
+    private String description;
+    @Column(name = "available")
+    private Boolean available;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JoinColumn(name = "owner_id")
+    private User owner;
+}
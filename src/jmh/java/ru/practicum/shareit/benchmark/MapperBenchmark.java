@@ -0,0 +1,99 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import ru.practicum.shareit.booking.BookStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBooking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.booking.BookingMapper.toBookerDto;
+import static ru.practicum.shareit.booking.BookingMapper.toBookingDto;
+import static ru.practicum.shareit.item.ItemMapper.toItemDto;
+import static ru.practicum.shareit.item.ItemMapper.toItemWithBooking;
+import static ru.practicum.shareit.item.ItemMapper.toItemWithBookings;
+
+/**
+ * Mapping cost of a single booking and of items with their last/next bookings and comments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private static final int ITEMS = 100;
+
+    private Booking booking;
+    private Booking nextBooking;
+    private Item item;
+    private List<CommentDto> comments;
+    private List<ItemDto> items;
+    private Map<Long, ItemBookingSummary> summaries;
+    private Map<Long, List<CommentDto>> commentsByItem;
+
+    @Setup
+    public void setUp() {
+        User owner = new User(1L, "owner", "owner@bench.ru");
+        User booker = new User(2L, "booker", "booker@bench.ru");
+        LocalDateTime now = LocalDateTime.now();
+        item = new Item();
+        item.setId(1L);
+        item.setName("Дрель");
+        item.setDescription("Дрель аккумуляторная");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        booking = new Booking(1L, now.minusDays(2), now.minusDays(1), item, booker, BookStatus.APPROVED);
+        nextBooking = new Booking(2L, now.plusDays(1), now.plusDays(2), item, booker, BookStatus.APPROVED);
+        comments = List.of(new CommentDto(1L, "отличная дрель", "booker", now), new CommentDto(2L, "шумная", "booker", now));
+
+        items = new ArrayList<>(ITEMS);
+        summaries = new HashMap<>();
+        commentsByItem = new HashMap<>();
+        for (long id = 1; id <= ITEMS; id++) {
+            Item next = new Item();
+            next.setId(id);
+            next.setName("Вещь " + id);
+            next.setDescription("Описание " + id);
+            next.setAvailable(true);
+            next.setOwner(owner);
+            items.add(toItemDto(next));
+            ItemBookingSummary summary = new ItemBookingSummary(id);
+            summary.setLastBooking(new BookingSnapshot(id * 2, booker.getId(), now.minusDays(2), now.minusDays(1), BookStatus.APPROVED));
+            summary.setNextBooking(new BookingSnapshot(id * 2 + 1, booker.getId(), now.plusDays(1), now.plusDays(2), BookStatus.APPROVED));
+            summaries.put(id, summary);
+            commentsByItem.put(id, comments);
+        }
+    }
+
+    @Benchmark
+    public BookingDto bookingToDto() {
+        return toBookingDto(booking);
+    }
+
+    @Benchmark
+    public ItemWithBooking itemToItemWithBooking() {
+        return toItemWithBooking(item,
+                toBookerDto(booking, item, booking.getBooker().getId()),
+                toBookerDto(nextBooking, item, nextBooking.getBooker().getId()),
+                comments);
+    }
+
+    @Benchmark
+    public List<ItemWithBooking> itemsToItemWithBookings() {
+        return toItemWithBookings(items, summaries, commentsByItem);
+    }
+}
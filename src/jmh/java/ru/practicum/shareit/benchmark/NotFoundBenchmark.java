@@ -0,0 +1,130 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.item.ItemNotFoundException;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Cost of a 404. throwWithStackTrace and throwStackless raise and catch an exception below {@code depth} frames,
+ * the depth of a service call under the servlet filters, MVC dispatch and AOP proxies, with and without filling
+ * in its stack trace; throwShared throws the shared instance instead of allocating one. notFoundRequest runs GET /items/{id} for a missing item through the whole application.
+ * Run with {@code mvn -P jmh test-compile exec:exec -Djmh.args="NotFoundBenchmark"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotFoundBenchmark {
+
+    /**
+     * A domain exception as they were before ShareItException: a plain checked exception with a stack trace.
+     */
+    static class StackTraceNotFoundException extends Exception {
+        StackTraceNotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Stack {
+        @Param({"20", "150"})
+        private int depth;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Application {
+        private ConfigurableApplicationContext context;
+        private MockMvc mvc;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = new SpringApplicationBuilder(ShareItApp.class)
+                    .profiles("test")
+                    .run("--server.port=0",
+                            "--spring.datasource.url=jdbc:h2:mem:jmh404;DB_CLOSE_DELAY=-1",
+                            "--spring.flyway.locations=classpath:db/migration/common,classpath:db/migration/{vendor}",
+                            "--shareit.tracing.exporter=none",
+                            "--spring.main.banner-mode=off",
+                            "--logging.level.root=WARN",
+                            "--logging.level.org.springframework.transaction=WARN",
+                            "--logging.level.org.springframework.transaction.interceptor=WARN",
+                            "--logging.level.org.springframework.orm.jpa=WARN",
+                            "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+            mvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                    .addFilters(context.getBeansOfType(OncePerRequestFilter.class).values().toArray(new OncePerRequestFilter[0]))
+                    .build();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Exception throwWithStackTrace(Stack stack) {
+        try {
+            descend(stack.depth, true);
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Exception throwStackless(Stack stack) {
+        try {
+            descend(stack.depth, false);
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Exception throwShared(Stack stack) {
+        try {
+            descendShared(stack.depth);
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int notFoundRequest(Application application) throws Exception {
+        return application.mvc.perform(get("/items/{itemId}", Long.MAX_VALUE).header("X-Sharer-User-Id", 1L))
+                .andReturn()
+                .getResponse()
+                .getStatus();
+    }
+
+    private static int descend(int frames, boolean stackTrace) throws Exception {
+        if (frames > 0) {
+            return descend(frames - 1, stackTrace) + 1;
+        }
+        if (stackTrace) {
+            throw new StackTraceNotFoundException("Запрашиваемой вещи не существует");
+        }
+        throw new ItemNotFoundException("Запрашиваемой вещи не существует");
+    }
+
+    private static int descendShared(int frames) throws Exception {
+        if (frames > 0) {
+            return descendShared(frames - 1) + 1;
+        }
+        throw ItemNotFoundException.REQUESTED_NOT_EXISTS;
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaries;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemWithBooking;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.service.ItemRequestService;
+import ru.practicum.shareit.utils.PageCursor;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service read paths against an in-memory H2 database seeded with {@link BenchmarkData}.
+ * Run with {@code mvn -P jmh test-compile exec:exec -Djmh.args="ServiceBenchmark -p rows=1000"};
+ * without -p every dataset size is measured, and the 1M dataset takes a few minutes to seed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int PAGE = 20;
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private ItemRequestService itemRequestService;
+    private int deepOffset;
+    private String deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:jmh" + rows + ";DB_CLOSE_DELAY=-1",
+                        "spring.flyway.locations=classpath:db/migration/common,classpath:db/migration/{vendor}",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        BenchmarkData data = new BenchmarkData(context.getBean(JdbcTemplate.class), rows);
+        data.seed();
+        context.getBean(ItemSearchIndex.class).rebuild();
+        context.getBean(ItemBookingSummaries.class).sweep();
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        itemRequestService = context.getBean(ItemRequestService.class);
+
+        deepOffset = data.heavyBookerBookings() / 2 / PAGE * PAGE;
+        List<BookingDto> beforeDeepPage = bookingService.getAllBookings(BenchmarkData.HEAVY_BOOKER, "ALL", deepOffset - PAGE, PAGE);
+        BookingDto last = beforeDeepPage.get(beforeDeepPage.size() - 1);
+        deepCursor = new PageCursor(last.getStart(), last.getId()).encode();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemWithBooking> getItems() throws Exception {
+        return itemService.getItems(BenchmarkData.HEAVY_OWNER, 0, PAGE);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItem() throws Exception {
+        return itemService.searchItem(BenchmarkData.SEARCH_WORD, 0, PAGE);
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllBookings() throws Exception {
+        return bookingService.getAllBookings(BenchmarkData.HEAVY_BOOKER, "ALL", 0, PAGE);
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllBookingsDeepOffset() throws Exception {
+        return bookingService.getAllBookings(BenchmarkData.HEAVY_BOOKER, "ALL", deepOffset, PAGE);
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllBookingsDeepCursor() throws Exception {
+        return bookingService.getAllBookingsAfter(BenchmarkData.HEAVY_BOOKER, "ALL", deepCursor, PAGE);
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllBookingsByOwnerItems() throws Exception {
+        return bookingService.getAllBookingsByOwnerItems(BenchmarkData.HEAVY_OWNER, "ALL", 0, PAGE);
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllBookingsByOwnerItemsFuture() throws Exception {
+        return bookingService.getAllBookingsByOwnerItems(BenchmarkData.HEAVY_OWNER, "FUTURE", 0, PAGE);
+    }
+
+    @Benchmark
+    public List<ItemRequestDto> getAllItemRequestDtos() throws Exception {
+        return itemRequestService.getAllItemRequestDtos(BenchmarkData.HEAVY_BOOKER, 0, PAGE);
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.utils.ErrorCode;
+import ru.practicum.shareit.utils.ShareItException;
+
+public class BookingConflictException extends ShareItException {
+
+    public BookingConflictException(String message) {
+        super(ErrorCode.BOOKING_CONFLICT, message);
+    }
+}
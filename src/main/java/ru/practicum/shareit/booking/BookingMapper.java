@@ -5,7 +5,11 @@ import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.booking.repository.BookingView;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import static ru.practicum.shareit.item.ItemMapper.toItemDto;
@@ -35,6 +39,17 @@ public class BookingMapper {
         );
     }
 
+    public static BookerDto toBookerDto(BookingSnapshot booking, ItemDto item) {
+        return new BookerDto(
+                booking.getBookingId(),
+                booking.getStart(),
+                booking.getEnd(),
+                item,
+                booking.getBookerId(),
+                booking.getStatus()
+        );
+    }
+
     public static BookingDto toBookingDto(Booking booking) {
         return new BookingDto(booking.getId(),
                 booking.getStart(),
@@ -43,4 +58,17 @@ public class BookingMapper {
                 toUserDto(booking.getBooker()),
                 booking.getStatus());
     }
+
+    public static BookingDto toBookingDto(BookingView booking) {
+        return new BookingDto(booking.getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                new ItemDto(booking.getItemName(),
+                        booking.getItemDescription(),
+                        booking.getItemAvailable(),
+                        booking.getItemId(),
+                        booking.getItemRequestId()),
+                new UserDto(booking.getBookerId(), booking.getBookerName(), booking.getBookerEmail()),
+                booking.getStatus());
+    }
 }
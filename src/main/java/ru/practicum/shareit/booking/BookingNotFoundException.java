@@ -1,8 +1,12 @@
 package ru.practicum.shareit.booking;
 
-public class BookingNotFoundException extends Exception {
+import ru.practicum.shareit.utils.ErrorCode;
+import ru.practicum.shareit.utils.ShareItException;
+
+public class BookingNotFoundException extends ShareItException {
+    public static final BookingNotFoundException NOT_EXISTS = new BookingNotFoundException("Бронирования не существует");
 
     public BookingNotFoundException(String message) {
-        super(message);
+        super(ErrorCode.BOOKING_NOT_FOUND, message);
     }
 }
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.booking;
 
-public class IncorrectBookingException extends Exception {
+import ru.practicum.shareit.utils.ErrorCode;
+import ru.practicum.shareit.utils.ShareItException;
+
+public class IncorrectBookingException extends ShareItException {
 
     public IncorrectBookingException(String message) {
-        super(message);
+        super(ErrorCode.INCORRECT_BOOKING, message);
     }
 }
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.booking;
 
-public class IncorrectBookingStatusException extends Exception {
+import ru.practicum.shareit.utils.ErrorCode;
+import ru.practicum.shareit.utils.ShareItException;
+
+public class IncorrectBookingStatusException extends ShareItException {
 
     public IncorrectBookingStatusException(String message) {
-        super(message);
+        super(ErrorCode.UNKNOWN_STATE, message);
     }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.BookingConflictException;
 import ru.practicum.shareit.booking.BookingNotFoundException;
 import ru.practicum.shareit.booking.IncorrectBookingException;
 import ru.practicum.shareit.booking.IncorrectBookingStatusException;
@@ -12,8 +13,10 @@ import ru.practicum.shareit.item.ItemNotAvailableException;
 import ru.practicum.shareit.item.ItemNotFoundException;
 import ru.practicum.shareit.user.IncorrectOwnerException;
 import ru.practicum.shareit.user.UserNotFoundException;
+import ru.practicum.shareit.utils.PageCursor;
 import ru.practicum.shareit.utils.PaginationNotCorrectException;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.util.List;
 
@@ -28,12 +31,12 @@ public class BookingController {
     }
 
     @PostMapping
-    public BookingDto addBooking(@RequestBody @Valid BookingIncomingDto bookingIncomingDto, @RequestHeader("X-Sharer-User-Id") Long booker) throws ItemNotAvailableException, ItemNotFoundException, IncorrectBookingException, UserNotFoundException {
+    public BookingDto addBooking(@RequestBody @Valid BookingIncomingDto bookingIncomingDto, @RequestHeader("X-Sharer-User-Id") Long booker) throws ItemNotAvailableException, ItemNotFoundException, IncorrectBookingException, UserNotFoundException, BookingConflictException {
         return bookingService.addBooking(bookingIncomingDto, booker);
     }
 
     @PatchMapping("/{bookingId}")
-    public BookingDto setBookingStatus(@PathVariable Long bookingId, @RequestParam Boolean approved, @RequestHeader("X-Sharer-User-Id") Long owner) throws IncorrectOwnerException, IncorrectBookingException, ItemNotFoundException {
+    public BookingDto setBookingStatus(@PathVariable Long bookingId, @RequestParam Boolean approved, @RequestHeader("X-Sharer-User-Id") Long owner) throws IncorrectOwnerException, IncorrectBookingException, ItemNotFoundException, BookingConflictException {
         return bookingService.setBookingStatus(bookingId, approved, owner);
     }
 
@@ -43,12 +46,27 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllBookings(@RequestHeader("X-Sharer-User-Id") Long owner, @RequestParam(required = false, defaultValue = "ALL") String state, @RequestParam(required = false, defaultValue = "0") Integer from, @RequestParam(required = false, defaultValue = "20") Integer size) throws UserNotFoundException, IncorrectBookingStatusException, PaginationNotCorrectException {
-        return bookingService.getAllBookings(owner, state, from, size);
+    public List<BookingDto> getAllBookings(@RequestHeader("X-Sharer-User-Id") Long owner, @RequestParam(required = false, defaultValue = "ALL") String state, @RequestParam(required = false, defaultValue = "0") Integer from, @RequestParam(required = false, defaultValue = "20") Integer size, @RequestParam(required = false) String cursor, HttpServletResponse response) throws UserNotFoundException, IncorrectBookingStatusException, PaginationNotCorrectException {
+        List<BookingDto> bookings = cursor == null
+                ? bookingService.getAllBookings(owner, state, from, size)
+                : bookingService.getAllBookingsAfter(owner, state, cursor, size);
+        setNextCursor(response, bookings, size);
+        return bookings;
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllBookingsByOwnerItems(@RequestHeader("X-Sharer-User-Id") Long owner, @RequestParam(required = false, defaultValue = "ALL") String state, @RequestParam(required = false, defaultValue = "0") Integer from, @RequestParam(required = false, defaultValue = "20") Integer size) throws UserNotFoundException, IncorrectBookingStatusException, PaginationNotCorrectException {
-        return bookingService.getAllBookingsByOwnerItems(owner, state, from, size);
+    public List<BookingDto> getAllBookingsByOwnerItems(@RequestHeader("X-Sharer-User-Id") Long owner, @RequestParam(required = false, defaultValue = "ALL") String state, @RequestParam(required = false, defaultValue = "0") Integer from, @RequestParam(required = false, defaultValue = "20") Integer size, @RequestParam(required = false) String cursor, HttpServletResponse response) throws UserNotFoundException, IncorrectBookingStatusException, PaginationNotCorrectException {
+        List<BookingDto> bookings = cursor == null
+                ? bookingService.getAllBookingsByOwnerItems(owner, state, from, size)
+                : bookingService.getAllBookingsByOwnerItemsAfter(owner, state, cursor, size);
+        setNextCursor(response, bookings, size);
+        return bookings;
+    }
+
+    private void setNextCursor(HttpServletResponse response, List<BookingDto> bookings, Integer size) {
+        String next = PageCursor.next(bookings, size, x -> new PageCursor(x.getStart(), x.getId()));
+        if (next != null) {
+            response.setHeader(PageCursor.HEADER, next);
+        }
     }
 }
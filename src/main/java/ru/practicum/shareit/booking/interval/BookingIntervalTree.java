@@ -0,0 +1,176 @@
+package ru.practicum.shareit.booking.interval;
+
+import java.time.LocalDateTime;
+
+/**
+ * AVL tree of half-open booking intervals ordered by start and booking id.
+ * Every node keeps the latest end of its subtree, so an overlap lookup skips subtrees that end too early.
+ */
+class BookingIntervalTree {
+    private Node root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return overlaps(root, start, end);
+    }
+
+    void add(LocalDateTime start, LocalDateTime end, long bookingId) {
+        root = insert(root, new Node(start, end, bookingId));
+    }
+
+    boolean remove(LocalDateTime start, long bookingId) {
+        int before = size;
+        root = delete(root, start, bookingId);
+        return size < before;
+    }
+
+    private static boolean overlaps(Node node, LocalDateTime start, LocalDateTime end) {
+        while (node != null) {
+            if (!node.maxEnd.isAfter(start)) {
+                return false;
+            }
+            if (node.start.isBefore(end) && start.isBefore(node.end)) {
+                return true;
+            }
+            if (node.left != null && node.left.maxEnd.isAfter(start) && overlaps(node.left, start, end)) {
+                return true;
+            }
+            if (!node.start.isBefore(end)) {
+                return false;
+            }
+            node = node.right;
+        }
+        return false;
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            size++;
+            return added;
+        }
+        int cmp = compare(added.start, added.bookingId, node);
+        if (cmp < 0) {
+            node.left = insert(node.left, added);
+        } else if (cmp > 0) {
+            node.right = insert(node.right, added);
+        } else {
+            node.end = added.end;
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, LocalDateTime start, long bookingId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, bookingId, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, bookingId);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, bookingId);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.right = detachMin(node.right);
+            successor.left = node.left;
+            successor.right = node.right;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private Node detachMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = detachMin(node.left);
+        return balance(node);
+    }
+
+    private static int compare(LocalDateTime start, long bookingId, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : Long.compare(bookingId, node.bookingId);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static class Node {
+        private final LocalDateTime start;
+        private final long bookingId;
+        private LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        Node(LocalDateTime start, LocalDateTime end, long bookingId) {
+            this.start = start;
+            this.end = end;
+            this.bookingId = bookingId;
+            this.maxEnd = end;
+        }
+    }
+}
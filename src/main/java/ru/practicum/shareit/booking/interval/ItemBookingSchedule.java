@@ -0,0 +1,133 @@
+package ru.practicum.shareit.booking.interval;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookStatus;
+import ru.practicum.shareit.booking.BookingConflictException;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingJpaRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Active (WAITING and APPROVED) bookings of recently booked items, kept as interval trees.
+ * Items are spread over lock stripes: the overlap check and the insert for one item run under its stripe lock,
+ * while bookings of items on other stripes proceed in parallel. Each stripe keeps an LRU of item trees;
+ * a missing tree is loaded with an indexed range query over the bookings that have not ended yet.
+ * <p>
+ * The trees only know the bookings made through this instance, and miss status changes and bookings made on
+ * other instances. So a tree is trusted only to accept a booking: an overlap it reports is confirmed by reloading
+ * the tree before the booking is refused, and trees older than {@link #TREE_TTL} are reloaded, which also drops
+ * the bookings that have ended. Across instances the insert callback is the guard: it locks the item row and
+ * repeats the overlap check in the database before inserting.
+ */
+@Component
+public class ItemBookingSchedule {
+    public static final List<BookStatus> ACTIVE_STATUSES = List.of(BookStatus.WAITING, BookStatus.APPROVED);
+    private static final int STRIPES = 64;
+    private static final int ITEMS_PER_STRIPE = 256;
+    static final Duration TREE_TTL = Duration.ofMinutes(5);
+
+    private final BookingJpaRepository bookingJpaRepository;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public ItemBookingSchedule(BookingJpaRepository bookingJpaRepository) {
+        this.bookingJpaRepository = bookingJpaRepository;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Inserts the booking if it does not overlap an active one. An overlap found in a tree loaded earlier is checked
+     * against a freshly loaded tree, since the booking it found may have been rejected or cancelled elsewhere.
+     * The insert returns null when the database already holds an overlapping booking made elsewhere; the item tree
+     * is then stale and is dropped to be reloaded.
+     */
+    public Booking reserve(Booking booking, UnaryOperator<Booking> insert) throws BookingConflictException {
+        Long itemId = booking.getItem().getId();
+        Stripe stripe = stripe(itemId);
+        stripe.lock.lock();
+        try {
+            LoadedTree loaded = stripe.trees.get(itemId);
+            if (loaded == null || loaded.isExpired() || loaded.tree.overlaps(booking.getStart(), booking.getEnd())) {
+                loaded = load(itemId);
+                stripe.trees.put(itemId, loaded);
+            }
+            BookingIntervalTree tree = loaded.tree;
+            if (tree.overlaps(booking.getStart(), booking.getEnd())) {
+                throw new BookingConflictException("Вещь уже забронирована на указанное время");
+            }
+            Booking saved = insert.apply(booking);
+            if (saved == null) {
+                stripe.trees.remove(itemId);
+                throw new BookingConflictException("Вещь уже забронирована на указанное время");
+            }
+            tree.add(saved.getStart(), saved.getEnd(), saved.getId());
+            return saved;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Lock of the stripe the item belongs to; status changes hold it so they do not interleave with reserve.
+     */
+    public Lock lockFor(Long itemId) {
+        return stripe(itemId).lock;
+    }
+
+    public void release(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Stripe stripe = stripe(itemId);
+        stripe.lock.lock();
+        try {
+            LoadedTree loaded = stripe.trees.get(itemId);
+            if (loaded != null) {
+                loaded.tree.remove(booking.getStart(), booking.getId());
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private LoadedTree load(Long itemId) {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        bookingJpaRepository.findByItemIdAndStatusInAndEndIsAfter(itemId, ACTIVE_STATUSES, LocalDateTime.now())
+                .forEach(x -> tree.add(x.getStart(), x.getEnd(), x.getId()));
+        return new LoadedTree(tree);
+    }
+
+    private Stripe stripe(Long itemId) {
+        return stripes[(Long.hashCode(itemId) & Integer.MAX_VALUE) % STRIPES];
+    }
+
+    private static class LoadedTree {
+        private final BookingIntervalTree tree;
+        private final long loadedAt = System.nanoTime();
+
+        LoadedTree(BookingIntervalTree tree) {
+            this.tree = tree;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - loadedAt > TREE_TTL.toNanos();
+        }
+    }
+
+    private static class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, LoadedTree> trees = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, LoadedTree> eldest) {
+                return size() > ITEMS_PER_STRIPE;
+            }
+        };
+    }
+}
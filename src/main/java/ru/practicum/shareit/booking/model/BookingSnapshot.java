@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.BookStatus;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import java.time.LocalDateTime;
+
+/**
+ * Copy of the booking fields shown as the last or next booking of an item.
+ */
+@Embeddable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingSnapshot {
+    @Column(name = "booking_id")
+    private Long bookingId;
+    @Column(name = "booker_id")
+    private Long bookerId;
+    @Column(name = "booking_start")
+    private LocalDateTime start;
+    @Column(name = "booking_end")
+    private LocalDateTime end;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private BookStatus status;
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Last and next booking of an item, kept up to date on booking writes.
+ * The row stays correct until {@code validUntil}, the first moment a booking of the item starts or ends;
+ * null means no booking of the item will cross "now" any more.
+ */
+@Entity
+@Table(name = "item_booking_summary")
+@Data
+@NoArgsConstructor
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "bookingId", column = @Column(name = "last_booking_id")),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "last_booker_id")),
+            @AttributeOverride(name = "start", column = @Column(name = "last_start")),
+            @AttributeOverride(name = "end", column = @Column(name = "last_end")),
+            @AttributeOverride(name = "status", column = @Column(name = "last_status"))})
+    private BookingSnapshot lastBooking;
+    @Embedded
+    @AttributeOverrides({
+            @AttributeOverride(name = "bookingId", column = @Column(name = "next_booking_id")),
+            @AttributeOverride(name = "bookerId", column = @Column(name = "next_booker_id")),
+            @AttributeOverride(name = "start", column = @Column(name = "next_start")),
+            @AttributeOverride(name = "end", column = @Column(name = "next_end")),
+            @AttributeOverride(name = "status", column = @Column(name = "next_status"))})
+    private BookingSnapshot nextBooking;
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    public ItemBookingSummary(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public boolean isValidAt(LocalDateTime now) {
+        return validUntil == null || validUntil.isAfter(now);
+    }
+}
@@ -3,30 +3,91 @@ package ru.practicum.shareit.booking.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.BookStatus;
 import ru.practicum.shareit.booking.model.Booking;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingJpaRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerIdAndItemIdAndStatus(Long bookerId, Long itemId, BookStatus status);
+    String VIEW_COLUMNS = "b.id as id, b.start as start, b.end as end, b.status as status, " +
+            "i.id as itemId, i.name as itemName, i.description as itemDescription, i.available as itemAvailable, " +
+            "i.request.id as itemRequestId, u.id as bookerId, u.name as bookerName, u.email as bookerEmail";
 
-    Page<Booking> findByBookerId(Long bookerId, Pageable pageable);
+    /**
+     * Bookings are always mapped together with their item and booker, so both are fetched in the same select.
+     */
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long id);
 
-    List<Booking> findByItemId(Long itemId);
+    List<Booking> findByBookerIdAndItemIdAndStatus(Long bookerId, Long itemId, BookStatus status);
 
-    Page<Booking> findByBookerIdAndStartIsAfter(Long bookerId, LocalDateTime start, Pageable pageable);
+    List<Booking> findByItemId(Long itemId);
 
-    Page<Booking> findByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime end, Pageable pageable);
+    List<Booking> findByItemIdAndStatusInAndEndIsAfter(Long itemId, Collection<BookStatus> statuses, LocalDateTime end);
 
-    Page<Booking> findByBookerIdAndStartIsBeforeAndEndIsAfter(Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    boolean existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(Long itemId, Collection<BookStatus> statuses,
+                                                                   LocalDateTime end, LocalDateTime start);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
     List<Booking> findByBookerIdAndStatus(Long bookerId, BookStatus status, Sort sort);
 
-    Page<Booking> findByBookerIdAndStatus(Long bookerId, BookStatus status, Pageable pageable);
-
     Page<Booking> findAll(Pageable pageable);
 
+    @Query("select b.item.id as itemId, b.id as id, b.booker.id as bookerId, b.start as start, b.end as end, b.status as status " +
+            "from Booking b " +
+            "where b.item.id in :itemIds and b.end < :now " +
+            "and b.start = (select max(l.start) from Booking l where l.item.id = b.item.id and l.end < :now)")
+    List<BookingSlot> findLastBookingsByItemIdIn(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Query("select b.item.id as itemId, b.id as id, b.booker.id as bookerId, b.start as start, b.end as end, b.status as status " +
+            "from Booking b " +
+            "where b.item.id in :itemIds and b.start > :now " +
+            "and b.start = (select min(n.start) from Booking n where n.item.id = b.item.id and n.start > :now)")
+    List<BookingSlot> findNextBookingsByItemIdIn(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Earliest end among the bookings of every item that have not ended yet; only itemId and end are set.
+     */
+    @Query("select b.item.id as itemId, min(b.end) as end from Booking b " +
+            "where b.item.id in :itemIds and b.end >= :now group by b.item.id")
+    List<BookingSlot> findEarliestEndsByItemIdIn(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    List<Booking> findByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(Long itemId, Collection<BookStatus> statuses,
+                                                                    LocalDateTime end, LocalDateTime start);
+
+    /**
+     * Bookings of a booker within the bounds of a state, newest first, starting after the cursor.
+     * Offset pages start at the latest possible cursor.
+     */
+    @Query("select " + VIEW_COLUMNS + " from Booking b join b.item i join b.booker u where u.id = :userId " +
+            "and b.start > :startAfter and b.start < :startBefore and b.end > :endAfter and b.end < :endBefore " +
+            "and b.status in :statuses " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> seekByBookerId(@Param("userId") Long userId,
+                                     @Param("startAfter") LocalDateTime startAfter, @Param("startBefore") LocalDateTime startBefore,
+                                     @Param("endAfter") LocalDateTime endAfter, @Param("endBefore") LocalDateTime endBefore,
+                                     @Param("statuses") Collection<BookStatus> statuses,
+                                     @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId,
+                                     Pageable pageable);
+
+    @Query("select " + VIEW_COLUMNS + " from Booking b join b.item i join b.booker u where i.owner.id = :userId " +
+            "and b.start > :startAfter and b.start < :startBefore and b.end > :endAfter and b.end < :endBefore " +
+            "and b.status in :statuses " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> seekByItemOwnerId(@Param("userId") Long userId,
+                                        @Param("startAfter") LocalDateTime startAfter, @Param("startBefore") LocalDateTime startBefore,
+                                        @Param("endAfter") LocalDateTime endAfter, @Param("endBefore") LocalDateTime endBefore,
+                                        @Param("statuses") Collection<BookStatus> statuses,
+                                        @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId,
+                                        Pageable pageable);
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.BookStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Booking columns read for the item booking summary, without loading the item and booker entities.
+ */
+public interface BookingSlot {
+    Long getItemId();
+
+    Long getId();
+
+    Long getBookerId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    BookStatus getStatus();
+}
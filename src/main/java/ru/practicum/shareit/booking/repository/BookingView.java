@@ -0,0 +1,35 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.BookStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row of a booking list: the booking with the columns of its item and booker needed for the response,
+ * read without loading the item, booker and request entities.
+ */
+public interface BookingView {
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    BookStatus getStatus();
+
+    Long getItemId();
+
+    String getItemName();
+
+    String getItemDescription();
+
+    Boolean getItemAvailable();
+
+    Long getItemRequestId();
+
+    Long getBookerId();
+
+    String getBookerName();
+
+    String getBookerEmail();
+}
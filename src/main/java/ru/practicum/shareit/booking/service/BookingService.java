@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.BookingConflictException;
 import ru.practicum.shareit.booking.BookingNotFoundException;
 import ru.practicum.shareit.booking.IncorrectBookingException;
 import ru.practicum.shareit.booking.IncorrectBookingStatusException;
@@ -15,13 +16,17 @@ import java.util.List;
 
 
 public interface BookingService {
-    BookingDto addBooking(BookingIncomingDto bookingIncomingDto, Long owner) throws ItemNotAvailableException, ItemNotFoundException, IncorrectBookingException, UserNotFoundException;
+    BookingDto addBooking(BookingIncomingDto bookingIncomingDto, Long owner) throws ItemNotAvailableException, ItemNotFoundException, IncorrectBookingException, UserNotFoundException, BookingConflictException;
 
-    BookingDto setBookingStatus(Long bookingId, Boolean approved, Long owner) throws IncorrectOwnerException, IncorrectBookingException, ItemNotFoundException;
+    BookingDto setBookingStatus(Long bookingId, Boolean approved, Long owner) throws IncorrectOwnerException, IncorrectBookingException, ItemNotFoundException, BookingConflictException;
 
     BookingDto getBookingById(Long bookingId, Long owner) throws IncorrectOwnerException, BookingNotFoundException, ItemNotFoundException;
 
     List<BookingDto> getAllBookings(Long owner, String state, Integer from, Integer size) throws UserNotFoundException, IncorrectBookingStatusException, PaginationNotCorrectException;
 
     List<BookingDto> getAllBookingsByOwnerItems(Long owner, String state, Integer from, Integer size) throws UserNotFoundException, IncorrectBookingStatusException, PaginationNotCorrectException;
+
+    List<BookingDto> getAllBookingsAfter(Long owner, String state, String cursor, Integer size) throws UserNotFoundException, IncorrectBookingStatusException, PaginationNotCorrectException;
+
+    List<BookingDto> getAllBookingsByOwnerItemsAfter(Long owner, String state, String cursor, Integer size) throws UserNotFoundException, IncorrectBookingStatusException, PaginationNotCorrectException;
 }
@@ -1,28 +1,40 @@
 package ru.practicum.shareit.booking.service;
 
-import org.springframework.data.domain.Page;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
+import ru.practicum.shareit.booking.interval.ItemBookingSchedule;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingJpaRepository;
+import ru.practicum.shareit.booking.repository.BookingView;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaries;
 import ru.practicum.shareit.item.ItemNotAvailableException;
 import ru.practicum.shareit.item.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemJpaRepository;
+import ru.practicum.shareit.item.repository.ItemView;
+import ru.practicum.shareit.monitoring.RequestProfile;
 import ru.practicum.shareit.user.IncorrectOwnerException;
 import ru.practicum.shareit.user.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserJpaRepository;
 import ru.practicum.shareit.utils.MyPageable;
+import ru.practicum.shareit.utils.PageCursor;
 import ru.practicum.shareit.utils.PaginationNotCorrectException;
 
 import java.time.LocalDateTime;
-import java.util.Comparator;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.BookingMapper.fromBookingIncomingDto;
@@ -30,23 +42,33 @@ import static ru.practicum.shareit.booking.BookingMapper.toBookingDto;
 import static ru.practicum.shareit.utils.PaginationValidation.validatePagination;
 
 @Service
+@Timed("shareit.service")
 public class BookingServiceImpl implements BookingService {
+    private static final int STATUS_ATTEMPTS = 3;
 
     private final BookingJpaRepository bookingJpaRepository;
     private final ItemJpaRepository itemJpaRepository;
     private final UserJpaRepository userJpaRepository;
+    private final ItemBookingSchedule itemBookingSchedule;
+    private final TransactionTemplate transactionTemplate;
+    private final ItemBookingSummaries itemBookingSummaries;
 
-    public BookingServiceImpl(BookingJpaRepository bookingJpaRepository, ItemJpaRepository itemJpaRepository, UserJpaRepository userJpaRepository) {
+    public BookingServiceImpl(BookingJpaRepository bookingJpaRepository, ItemJpaRepository itemJpaRepository, UserJpaRepository userJpaRepository,
+                              PlatformTransactionManager transactionManager, ItemBookingSummaries itemBookingSummaries,
+                              ItemBookingSchedule itemBookingSchedule) {
         this.bookingJpaRepository = bookingJpaRepository;
         this.itemJpaRepository = itemJpaRepository;
         this.userJpaRepository = userJpaRepository;
+        this.itemBookingSchedule = itemBookingSchedule;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.itemBookingSummaries = itemBookingSummaries;
     }
 
     @Override
-    public BookingDto addBooking(BookingIncomingDto bookingIncomingDto, Long owner) throws ItemNotAvailableException, ItemNotFoundException, IncorrectBookingException, UserNotFoundException {
-        Item item = itemJpaRepository.findById(bookingIncomingDto.getItemId()).orElseThrow(() -> new ItemNotFoundException("Вещи не существует"));
-        User user = userJpaRepository.findById(owner).orElseThrow(() -> new UserNotFoundException("Пользователя не существует"));
-        Booking booking = fromBookingIncomingDto(bookingIncomingDto, user, item);
+    public BookingDto addBooking(BookingIncomingDto bookingIncomingDto, Long owner) throws ItemNotAvailableException, ItemNotFoundException, IncorrectBookingException, UserNotFoundException, BookingConflictException {
+        Item item = itemJpaRepository.findById(bookingIncomingDto.getItemId()).orElseThrow(() -> ItemNotFoundException.NOT_EXISTS);
+        User user = userJpaRepository.findById(owner).orElseThrow(() -> UserNotFoundException.NOT_EXISTS);
+        Booking booking = RequestProfile.mapping(() -> fromBookingIncomingDto(bookingIncomingDto, user, item));
         if (!item.getAvailable()) {
             throw new ItemNotAvailableException("Данная вещь недоступна");
         } else if (booking.getStart().isBefore(LocalDateTime.now())
@@ -56,44 +78,122 @@ public class BookingServiceImpl implements BookingService {
         } else if (item.getOwner().getId().equals(owner)) {
             throw new ItemNotFoundException("Вы не можете забронировать собственную вещь");
         }
-        return toBookingDto(bookingJpaRepository.save(booking));
+        try {
+            Booking saved = itemBookingSchedule.reserve(booking, this::insert);
+            return RequestProfile.mapping(() -> toBookingDto(saved));
+        } catch (DataIntegrityViolationException e) {
+            throw new BookingConflictException("Вещь уже забронирована на указанное время");
+        }
     }
 
     @Override
-    public BookingDto setBookingStatus(Long bookingId, Boolean approved, Long owner) throws IncorrectOwnerException, IncorrectBookingException, ItemNotFoundException {
+    public BookingDto setBookingStatus(Long bookingId, Boolean approved, Long owner) throws IncorrectOwnerException, IncorrectBookingException, ItemNotFoundException, BookingConflictException {
         Booking booking = bookingJpaRepository.findById(bookingId).orElseThrow(() -> new IncorrectBookingException("Проверьте корректность данных"));
-        Item item = itemJpaRepository.findById(booking.getItem().getId()).orElseThrow(() -> new ItemNotFoundException("Вещи не существует"));
+        ItemView item = itemJpaRepository.findViewById(booking.getItem().getId()).orElseThrow(() -> ItemNotFoundException.NOT_EXISTS);
 
-        if (!item.getOwner().getId().equals(owner)) {
+        if (!item.getOwnerId().equals(owner)) {
             throw new IncorrectOwnerException("Вещь не принадлежит указанному пользователю");
         }
 
-        if (booking.getStatus().equals(BookStatus.WAITING)) {
-            if (approved) {
-                booking.setStatus(BookStatus.APPROVED);
-            } else {
-                booking.setStatus(BookStatus.REJECTED);
+        Lock lock = itemBookingSchedule.lockFor(item.getId());
+        lock.lock();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                List<Booking> rejected = new ArrayList<>();
+                Booking saved;
+                try {
+                    saved = transactionTemplate.execute(status -> changeStatus(bookingId, approved, rejected));
+                } catch (OptimisticLockingFailureException e) {
+                    if (attempt == STATUS_ATTEMPTS) {
+                        throw new BookingConflictException("Статус бронирования изменён другим запросом");
+                    }
+                    continue;
+                }
+                if (saved == null) {
+                    throw new IncorrectBookingException("Невозможно подтвердить бронирование вещи");
+                }
+                rejected.forEach(itemBookingSchedule::release);
+                Booking changed = saved;
+                return RequestProfile.mapping(() -> toBookingDto(changed));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts the booking under a lock of the item row, so instances that do not share an {@link ItemBookingSchedule}
+     * are serialized on the database; returns null if an overlapping booking already exists there.
+     */
+    private Booking insert(Booking booking) {
+        return transactionTemplate.execute(status -> {
+            Long itemId = booking.getItem().getId();
+            itemJpaRepository.findLockedById(itemId);
+            if (bookingJpaRepository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(itemId,
+                    ItemBookingSchedule.ACTIVE_STATUSES, booking.getEnd(), booking.getStart())) {
+                return null;
+            }
+            Booking saved = bookingJpaRepository.save(booking);
+            itemBookingSummaries.refresh(List.of(saved.getItem().getId()));
+            return saved;
+        });
+    }
+
+    /**
+     * Moves a WAITING booking to APPROVED or REJECTED; an approval also rejects the WAITING bookings of the item
+     * that overlap it. addBooking no longer accepts such overlaps, but bookings saved before it did are still
+     * waiting, and H2 and baselined databases have no overlap constraint. An approval locks the item row, as insert
+     * does, so approvals on other instances do not interleave with it. Returns null if the booking is no longer
+     * WAITING or an overlapping booking is already approved.
+     */
+    private Booking changeStatus(Long bookingId, Boolean approved, List<Booking> rejected) {
+        Booking booking = bookingJpaRepository.findById(bookingId).orElse(null);
+        if (booking == null || !booking.getStatus().equals(BookStatus.WAITING)) {
+            return null;
+        }
+        if (approved) {
+            Long itemId = booking.getItem().getId();
+            itemJpaRepository.findLockedById(itemId);
+            List<Booking> overlapping = bookingJpaRepository.findByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(
+                    itemId, ItemBookingSchedule.ACTIVE_STATUSES, booking.getEnd(), booking.getStart());
+            if (overlapping.stream().anyMatch(x -> x.getStatus() == BookStatus.APPROVED)) {
+                return null;
+            }
+            booking.setStatus(BookStatus.APPROVED);
+            for (Booking other : overlapping) {
+                if (!other.getId().equals(bookingId)) {
+                    other.setStatus(BookStatus.REJECTED);
+                    rejected.add(bookingJpaRepository.save(other));
+                }
             }
         } else {
-            throw new IncorrectBookingException("Невозможно подтвердить бронирование вещи");
+            booking.setStatus(BookStatus.REJECTED);
+        }
+        Booking saved = bookingJpaRepository.save(booking);
+        if (saved.getStatus() == BookStatus.REJECTED) {
+            rejected.add(saved);
         }
-        return toBookingDto(bookingJpaRepository.save(booking));
+        bookingJpaRepository.flush();
+        itemBookingSummaries.refresh(List.of(saved.getItem().getId()));
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public BookingDto getBookingById(Long bookingId, Long owner) throws IncorrectOwnerException, BookingNotFoundException, ItemNotFoundException {
 
-        Booking booking = bookingJpaRepository.findById(bookingId).orElseThrow(() -> new BookingNotFoundException("Бронирования не существует"));
-        Item item = itemJpaRepository.findById(booking.getItem().getId()).orElseThrow(() -> new ItemNotFoundException("Вещи не существует"));
+        Booking booking = bookingJpaRepository.findById(bookingId).orElseThrow(() -> BookingNotFoundException.NOT_EXISTS);
+        ItemView item = itemJpaRepository.findViewById(booking.getItem().getId()).orElseThrow(() -> ItemNotFoundException.NOT_EXISTS);
 
-        if (!item.getOwner().getId().equals(owner) && !booking.getBooker().getId().equals(owner)) {
+        if (!item.getOwnerId().equals(owner) && !booking.getBooker().getId().equals(owner)) {
             throw new IncorrectOwnerException("Вещь не принадлежит указанному пользователю");
         }
 
-        return toBookingDto(booking);
+        return RequestProfile.mapping(() -> toBookingDto(booking));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getAllBookings(Long bookerId, String rawState, Integer from, Integer size) throws UserNotFoundException, IncorrectBookingStatusException, PaginationNotCorrectException {
         try {
             if (rawState.equals("ALL") ||
@@ -107,46 +207,19 @@ public class BookingServiceImpl implements BookingService {
         } catch (IllegalArgumentException e) {
             throw new IncorrectBookingStatusException("некорректный статус бронирования");
         }
-        List<Booking> bookings;
-        if (userJpaRepository.findById(bookerId).isEmpty()) {
-            throw new UserNotFoundException("Пользователя не существует");
+        if (userJpaRepository.findViewById(bookerId).isEmpty()) {
+            throw UserNotFoundException.NOT_EXISTS;
         }
         if (!validatePagination(from, size)) {
             throw new PaginationNotCorrectException("Некорректные условия постраничного вывода");
         }
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        Pageable page = new MyPageable(from, size, sort);
-        Page<Booking> requestPage;
-
-        switch (rawState) {
-            case "ALL":
-                requestPage = bookingJpaRepository.findByBookerId(bookerId, page);
-                break;
-            case "FUTURE":
-                requestPage = bookingJpaRepository.findByBookerIdAndStartIsAfter(bookerId, LocalDateTime.now(), page);
-                break;
-            case "PAST":
-                requestPage = bookingJpaRepository.findByBookerIdAndEndIsBefore(bookerId, LocalDateTime.now(), page);
-                break;
-            case "CURRENT":
-                requestPage = bookingJpaRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(bookerId, LocalDateTime.now(), LocalDateTime.now(), page);
-                break;
-            case "WAITING":
-            case "REJECTED":
-                requestPage = bookingJpaRepository.findByBookerIdAndStatus(bookerId, BookStatus.valueOf(rawState), page);
-                break;
-            default:
-                throw new IncorrectBookingStatusException("Unknown state: UNSUPPORTED_STATUS");
-        }
-        bookings = requestPage.getContent();
-        return bookings.stream()
-                .map(x -> toBookingDto(x))
-                .collect(Collectors.toList());
+        Pageable page = new MyPageable(from, size, Sort.unsorted());
+        return findBookings(false, bookerId, StateWindow.of(rawState, LocalDateTime.now()), PageCursor.LATEST, Long.MAX_VALUE, page);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookingDto> getAllBookingsByOwnerItems(Long owner, String state, Integer from, Integer size) throws UserNotFoundException, IncorrectBookingStatusException, PaginationNotCorrectException {
-        List<Booking> bookings;
         try {
             if (state.equals("ALL") ||
                     state.equals("FUTURE") ||
@@ -160,61 +233,94 @@ public class BookingServiceImpl implements BookingService {
             throw new IncorrectBookingStatusException("некорректный статус бронирования");
         }
 
-        if (userJpaRepository.findById(owner).isEmpty()) {
-            throw new UserNotFoundException("Пользователя не существует");
+        if (userJpaRepository.findViewById(owner).isEmpty()) {
+            throw UserNotFoundException.NOT_EXISTS;
         }
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
         if (!validatePagination(from, size)) {
             throw new PaginationNotCorrectException("Некорректные условия постраничного вывода");
         }
-        Pageable page = new MyPageable(from, size, sort);
-        Page<Booking> requestPage = bookingJpaRepository.findAll(page);
-        List<Booking> rawBookings = requestPage.getContent()
-                .stream()
-                .filter(x -> itemJpaRepository.findById(x.getItem().getId()).get().getOwner().getId().equals(owner))
-                .sorted(Comparator.comparing(Booking::getStart)
-                        .reversed())
-                .collect(Collectors.toList());
-
-        switch (state) {
-            case "ALL":
-                bookings = rawBookings;
-                break;
-            case "FUTURE":
-                bookings = rawBookings
-                        .stream()
-                        .filter(x -> x.getStart().isAfter(LocalDateTime.now()))
-                        .collect(Collectors.toList());
-                break;
-            case "PAST":
-                bookings = rawBookings
-                        .stream()
-                        .filter(x -> x.getEnd().isBefore(LocalDateTime.now()))
-                        .collect(Collectors.toList());
-                break;
-            case "CURRENT":
-                bookings = rawBookings
-                        .stream()
-                        .filter(x -> (x.getEnd().isAfter(LocalDateTime.now())) && x.getStart().isBefore(LocalDateTime.now()))
-                        .collect(Collectors.toList());
-                break;
-            case "WAITING":
-                bookings = rawBookings
-                        .stream()
-                        .filter(x -> x.getStatus().equals(BookStatus.WAITING))
-                        .collect(Collectors.toList());
-                break;
-            case "REJECTED":
-                bookings = rawBookings
-                        .stream()
-                        .filter(x -> x.getStatus().equals(BookStatus.REJECTED))
-                        .collect(Collectors.toList());
-                break;
-            default:
-                throw new IncorrectBookingStatusException("Unknown state: UNSUPPORTED_STATUS");
-        }
-        return bookings.stream()
+        Pageable page = new MyPageable(from, size, Sort.unsorted());
+        return findBookings(true, owner, StateWindow.of(state, LocalDateTime.now()), PageCursor.LATEST, Long.MAX_VALUE, page);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllBookingsAfter(Long bookerId, String state, String cursor, Integer size) throws UserNotFoundException, IncorrectBookingStatusException, PaginationNotCorrectException {
+        return seekBookings(false, bookerId, state, cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllBookingsByOwnerItemsAfter(Long owner, String state, String cursor, Integer size) throws UserNotFoundException, IncorrectBookingStatusException, PaginationNotCorrectException {
+        return seekBookings(true, owner, state, cursor, size);
+    }
+
+    private List<BookingDto> seekBookings(boolean byOwner, Long userId, String state, String cursor, Integer size) throws UserNotFoundException, IncorrectBookingStatusException, PaginationNotCorrectException {
+        StateWindow window = StateWindow.of(state, LocalDateTime.now());
+        if (userJpaRepository.findViewById(userId).isEmpty()) {
+            throw UserNotFoundException.NOT_EXISTS;
+        }
+        if (!validatePagination(0, size)) {
+            throw new PaginationNotCorrectException("Некорректные условия постраничного вывода");
+        }
+        PageCursor position = PageCursor.decode(cursor);
+        Pageable page = new MyPageable(0, size, Sort.unsorted());
+        return findBookings(byOwner, userId, window, position.getPositionOrLatest(), position.getId(), page);
+    }
+
+    /**
+     * Reads a page of bookings as flat rows, so the list does not load item, booker and request entities.
+     */
+    private List<BookingDto> findBookings(boolean byOwner, Long userId, StateWindow window,
+                                          LocalDateTime cursorStart, long cursorId, Pageable page) {
+        List<BookingView> bookings;
+        if (byOwner) {
+            bookings = bookingJpaRepository.seekByItemOwnerId(userId, window.startAfter, window.startBefore,
+                    window.endAfter, window.endBefore, window.statuses, cursorStart, cursorId, page);
+        } else {
+            bookings = bookingJpaRepository.seekByBookerId(userId, window.startAfter, window.startBefore,
+                    window.endAfter, window.endBefore, window.statuses, cursorStart, cursorId, page);
+        }
+        return RequestProfile.mapping(() -> bookings.stream()
                 .map(x -> toBookingDto(x))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Bounds of start, end and status matching a booking state, so every state is served by one seek query.
+     */
+    private static class StateWindow {
+        private static final LocalDateTime EARLIEST = LocalDateTime.of(1, 1, 1, 0, 0);
+
+        private LocalDateTime startAfter = EARLIEST;
+        private LocalDateTime startBefore = PageCursor.LATEST;
+        private LocalDateTime endAfter = EARLIEST;
+        private LocalDateTime endBefore = PageCursor.LATEST;
+        private List<BookStatus> statuses = List.of(BookStatus.values());
+
+        private static StateWindow of(String state, LocalDateTime now) throws IncorrectBookingStatusException {
+            StateWindow window = new StateWindow();
+            switch (state) {
+                case "ALL":
+                    break;
+                case "FUTURE":
+                    window.startAfter = now;
+                    break;
+                case "PAST":
+                    window.endBefore = now;
+                    break;
+                case "CURRENT":
+                    window.startBefore = now;
+                    window.endAfter = now;
+                    break;
+                case "WAITING":
+                case "REJECTED":
+                    window.statuses = List.of(BookStatus.valueOf(state));
+                    break;
+                default:
+                    throw new IncorrectBookingStatusException("Unknown state: UNSUPPORTED_STATUS");
+            }
+            return window;
+        }
     }
 }
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingJpaRepository;
+import ru.practicum.shareit.booking.repository.BookingSlot;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryJpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the last and next booking of every item in the item_booking_summary table.
+ * Booking writes refresh the summary of their item in the same transaction. Rows whose validity has run out
+ * because a booking started or ended are stored again only by the periodic sweep; a read recomputes them
+ * within the caller's transaction without writing, so it never needs a second connection.
+ */
+@Slf4j
+@Component
+public class ItemBookingSummaries {
+    private final ItemBookingSummaryJpaRepository summaryRepository;
+    private final BookingJpaRepository bookingJpaRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int sweepChunkSize;
+
+    public ItemBookingSummaries(ItemBookingSummaryJpaRepository summaryRepository,
+                                BookingJpaRepository bookingJpaRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${shareit.booking-summary.sweep-chunk-size:500}") int sweepChunkSize) {
+        this.summaryRepository = summaryRepository;
+        this.bookingJpaRepository = bookingJpaRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sweepChunkSize = sweepChunkSize;
+    }
+
+    /**
+     * Summaries of the items keyed by item id. Missing and outdated ones are recomputed for the caller
+     * but not stored: outdated rows are left to the sweep, and every item gets its row when it is created.
+     */
+    public Map<Long, ItemBookingSummary> get(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllById(itemIds)
+                .stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+        List<Long> stale = itemIds.stream()
+                .filter(x -> !summaries.containsKey(x) || !summaries.get(x).isValidAt(now))
+                .collect(Collectors.toList());
+        if (!stale.isEmpty()) {
+            Map<Long, ItemBookingSummary> recomputed = new HashMap<>();
+            compute(stale, now, recomputed);
+            summaries.putAll(recomputed);
+        }
+        return summaries;
+    }
+
+    /**
+     * Empty summaries for new items, so later refreshes only update rows.
+     */
+    public void create(Collection<Long> itemIds) {
+        summaryRepository.saveAll(itemIds.stream()
+                .map(ItemBookingSummary::new)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Recomputes the summaries of the items. Joins the caller's transaction, so a booking write
+     * and the summary of its item are committed together.
+     */
+    public Map<Long, ItemBookingSummary> refresh(Collection<Long> itemIds) {
+        return refresh(itemIds, LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.sweep-delay:60000}",
+            initialDelayString = "${shareit.booking-summary.sweep-delay:60000}")
+    public void sweep() {
+        int refreshed = 0;
+        List<ItemBookingSummary> stale;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            stale = summaryRepository.findByValidUntilLessThanEqual(now, PageRequest.of(0, sweepChunkSize));
+            if (!stale.isEmpty()) {
+                refresh(stale.stream().map(ItemBookingSummary::getItemId).collect(Collectors.toList()), now);
+            }
+            refreshed += stale.size();
+        } while (stale.size() == sweepChunkSize);
+        if (refreshed > 0) {
+            log.info("Обновлены сводки бронирований вещей: {}", refreshed);
+        }
+    }
+
+    private Map<Long, ItemBookingSummary> refresh(Collection<Long> itemIds, LocalDateTime now) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+            summaryRepository.lockByItemIdIn(itemIds).forEach(x -> summaries.put(x.getItemId(), x));
+            compute(itemIds, now, summaries);
+            summaryRepository.saveAll(summaries.values());
+            return summaries;
+        });
+    }
+
+    /**
+     * Sets last and next booking and validity of the items in the map, adding summaries for those missing.
+     */
+    private void compute(Collection<Long> itemIds, LocalDateTime now, Map<Long, ItemBookingSummary> summaries) {
+        Map<Long, BookingSlot> last = byItemId(bookingJpaRepository.findLastBookingsByItemIdIn(itemIds, now));
+        Map<Long, BookingSlot> next = byItemId(bookingJpaRepository.findNextBookingsByItemIdIn(itemIds, now));
+        Map<Long, LocalDateTime> earliestEnds = bookingJpaRepository.findEarliestEndsByItemIdIn(itemIds, now)
+                .stream()
+                .collect(Collectors.toMap(BookingSlot::getItemId, BookingSlot::getEnd));
+        for (Long itemId : itemIds) {
+            ItemBookingSummary summary = summaries.computeIfAbsent(itemId, ItemBookingSummary::new);
+            summary.setLastBooking(toSnapshot(last.get(itemId)));
+            summary.setNextBooking(toSnapshot(next.get(itemId)));
+            summary.setValidUntil(earliest(next.containsKey(itemId) ? next.get(itemId).getStart() : null,
+                    earliestEnds.get(itemId)));
+        }
+    }
+
+    private static Map<Long, BookingSlot> byItemId(List<BookingSlot> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(BookingSlot::getItemId,
+                        Function.identity(),
+                        (x, y) -> x.getId() < y.getId() ? x : y));
+    }
+
+    private static BookingSnapshot toSnapshot(BookingSlot booking) {
+        if (booking == null) {
+            return null;
+        }
+        return new BookingSnapshot(booking.getId(), booking.getBookerId(), booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
+
+    private static LocalDateTime earliest(LocalDateTime first, LocalDateTime second) {
+        if (first == null) {
+            return second;
+        }
+        return second == null || first.isBefore(second) ? first : second;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsContributor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.booking.BookCondition;
+import ru.practicum.shareit.booking.BookStatus;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service timers for classes annotated with {@link io.micrometer.core.annotation.Timed} and the booking state tag
+ * of the http.server.requests timers. The state comes from the client, so unknown values share one tag value.
+ */
+@Configuration
+public class MetricsConfig {
+    private static final Set<String> STATE_ENDPOINTS = Set.of("/bookings", "/bookings/owner");
+    private static final Set<String> STATES = Stream.concat(
+                    Stream.of(BookCondition.values()).map(Enum::name),
+                    Stream.of(BookStatus.values()).map(Enum::name))
+            .collect(Collectors.toUnmodifiableSet());
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public WebMvcTagsContributor bookingStateTagsContributor() {
+        return new WebMvcTagsContributor() {
+            @Override
+            public Iterable<Tag> getTags(HttpServletRequest request, HttpServletResponse response, Object handler, Throwable exception) {
+                return Tags.of("state", state(request));
+            }
+
+            @Override
+            public Iterable<Tag> getLongRequestTags(HttpServletRequest request, Object handler) {
+                return Tags.of("state", state(request));
+            }
+        };
+    }
+
+    static String state(HttpServletRequest request) {
+        if (!STATE_ENDPOINTS.contains(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE))) {
+            return "none";
+        }
+        String state = request.getParameter("state");
+        if (state == null) {
+            return BookCondition.ALL.name();
+        }
+        return STATES.contains(state) ? state : "unknown";
+    }
+}
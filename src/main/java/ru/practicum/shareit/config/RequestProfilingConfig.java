@@ -0,0 +1,35 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.monitoring.ProfiledJackson2HttpMessageConverter;
+import ru.practicum.shareit.monitoring.QueryBudgetInterceptor;
+import ru.practicum.shareit.monitoring.QueryBudgets;
+
+/**
+ * Per-request SQL, mapping and serialization timings: the JSON converter that measures serialization
+ * replaces the default one, and the query budgets are checked after each request.
+ */
+@Configuration
+public class RequestProfilingConfig implements WebMvcConfigurer {
+    @Bean
+    @ConfigurationProperties("shareit.sql")
+    public QueryBudgets queryBudgets() {
+        return new QueryBudgets();
+    }
+
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new ProfiledJackson2HttpMessageConverter(objectMapper);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetInterceptor(queryBudgets()));
+    }
+}
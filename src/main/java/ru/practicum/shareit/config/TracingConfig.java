@@ -0,0 +1,58 @@
+package ru.practicum.shareit.config;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.monitoring.TracingAspect;
+
+/**
+ * Spans for controller, service and repository calls, see {@link TracingAspect}, and for every SQL statement.
+ * With shareit.tracing.exporter=logging finished spans are written as OTLP JSON lines to the
+ * io.opentelemetry.exporter.logging.otlp logger, so traces can be collected from the log file without a collector
+ * running next to the application. Any other {@link SpanExporter} bean receives the spans as well.
+ */
+@Configuration
+@ConditionalOnProperty(value = "shareit.tracing.enabled", matchIfMissing = true)
+public class TracingConfig {
+    private static final String INSTRUMENTATION = "ru.practicum.shareit";
+
+    @Bean
+    @ConditionalOnProperty(value = "shareit.tracing.exporter", havingValue = "logging", matchIfMissing = true)
+    public SpanExporter loggingSpanExporter() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+
+    @Bean(destroyMethod = "close")
+    public SdkTracerProvider sdkTracerProvider(ObjectProvider<SpanExporter> exporters,
+                                               @Value("${spring.application.name:shareit}") String serviceName,
+                                               @Value("${shareit.tracing.sampling-probability:1.0}") double samplingProbability) {
+        SdkTracerProviderBuilder builder = SdkTracerProvider.builder()
+                .setResource(Resource.getDefault()
+                        .merge(Resource.create(Attributes.of(AttributeKey.stringKey("service.name"), serviceName))))
+                .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(samplingProbability)));
+        exporters.orderedStream().forEach(x -> builder.addSpanProcessor(BatchSpanProcessor.builder(x).build()));
+        return builder.build();
+    }
+
+    @Bean
+    public Tracer tracer(SdkTracerProvider sdkTracerProvider) {
+        return sdkTracerProvider.get(INSTRUMENTATION);
+    }
+
+    @Bean
+    public TracingAspect tracingAspect(Tracer tracer) {
+        return new TracingAspect(tracer);
+    }
+}
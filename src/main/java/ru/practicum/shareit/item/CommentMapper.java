@@ -3,6 +3,7 @@ package ru.practicum.shareit.item;
 import lombok.Data;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.repository.CommentView;
 
 import java.time.LocalDateTime;
 
@@ -17,4 +18,13 @@ public class CommentMapper {
                 LocalDateTime.now()
         );
     }
+
+    public static CommentDto toCommentDto(CommentView comment) {
+        return new CommentDto(
+                comment.getId(),
+                comment.getText(),
+                comment.getAuthorName(),
+                LocalDateTime.now()
+        );
+    }
 }
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item;
 
-public class IncorrectCommentException extends Exception {
+import ru.practicum.shareit.utils.ErrorCode;
+import ru.practicum.shareit.utils.ShareItException;
+
+public class IncorrectCommentException extends ShareItException {
 
     public IncorrectCommentException(String message) {
-        super(message);
+        super(ErrorCode.INCORRECT_COMMENT, message);
     }
 }
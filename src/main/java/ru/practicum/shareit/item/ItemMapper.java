@@ -2,14 +2,21 @@ package ru.practicum.shareit.item;
 
 import lombok.Data;
 import ru.practicum.shareit.booking.dto.BookerDto;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBooking;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemView;
 import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.booking.BookingMapper.toBookerDto;
 
 @Data
 public class ItemMapper {
@@ -26,6 +33,10 @@ public class ItemMapper {
         return itemDto;
     }
 
+    public static ItemDto toItemDto(ItemView item) {
+        return new ItemDto(item.getName(), item.getDescription(), item.getAvailable(), item.getId(), item.getRequestId());
+    }
+
     public static Item fromItemDto(ItemDto item, User owner, ItemRequest itemRequest) {
         return new Item(
                 item.getId(),
@@ -48,4 +59,29 @@ public class ItemMapper {
                 comments
         );
     }
+
+    public static List<ItemWithBooking> toItemWithBookings(List<ItemDto> items,
+                                                           Map<Long, ItemBookingSummary> summaries,
+                                                           Map<Long, List<CommentDto>> comments) {
+        return items.stream()
+                .map(x -> {
+                    ItemBookingSummary summary = summaries.get(x.getId());
+                    return new ItemWithBooking(
+                            x.getName(),
+                            x.getDescription(),
+                            x.getAvailable(),
+                            x.getId(),
+                            summary == null ? null : toItemBookerDto(x, summary.getLastBooking()),
+                            summary == null ? null : toItemBookerDto(x, summary.getNextBooking()),
+                            comments.getOrDefault(x.getId(), List.of()));
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static BookerDto toItemBookerDto(ItemDto item, BookingSnapshot booking) {
+        if (booking == null) {
+            return null;
+        }
+        return toBookerDto(booking, item);
+    }
 }
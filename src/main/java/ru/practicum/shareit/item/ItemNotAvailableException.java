@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item;
 
-public class ItemNotAvailableException extends Exception {
+import ru.practicum.shareit.utils.ErrorCode;
+import ru.practicum.shareit.utils.ShareItException;
+
+public class ItemNotAvailableException extends ShareItException {
 
     public ItemNotAvailableException(String message) {
-        super(message);
+        super(ErrorCode.ITEM_NOT_AVAILABLE, message);
     }
 }
@@ -1,8 +1,13 @@
 package ru.practicum.shareit.item;
 
-public class ItemNotFoundException extends Exception {
+import ru.practicum.shareit.utils.ErrorCode;
+import ru.practicum.shareit.utils.ShareItException;
+
+public class ItemNotFoundException extends ShareItException {
+    public static final ItemNotFoundException NOT_EXISTS = new ItemNotFoundException("Вещи не существует");
+    public static final ItemNotFoundException REQUESTED_NOT_EXISTS = new ItemNotFoundException("Запрашиваемой вещи не существует");
 
     public ItemNotFoundException(String message) {
-        super(message);
+        super(ErrorCode.ITEM_NOT_FOUND, message);
     }
 }
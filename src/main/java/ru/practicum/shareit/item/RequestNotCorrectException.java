@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item;
 
-public class RequestNotCorrectException extends Exception {
+import ru.practicum.shareit.utils.ErrorCode;
+import ru.practicum.shareit.utils.ShareItException;
+
+public class RequestNotCorrectException extends ShareItException {
 
     public RequestNotCorrectException(String message) {
-        super(message);
+        super(ErrorCode.INCORRECT_REQUEST, message);
     }
 }
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.IncorrectBookingException;
 import ru.practicum.shareit.item.IncorrectCommentException;
@@ -14,9 +16,15 @@ import ru.practicum.shareit.requests.RequestNotFoundException;
 import ru.practicum.shareit.user.IncorrectOwnerException;
 import ru.practicum.shareit.user.UserNotFoundException;
 import ru.practicum.shareit.user.ValidationException;
+import ru.practicum.shareit.utils.JsonBatchStreamer;
+import ru.practicum.shareit.utils.PageCursor;
 import ru.practicum.shareit.utils.PaginationNotCorrectException;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -24,10 +32,12 @@ import java.util.List;
 public class ItemController {
 
     private ItemService itemService;
+    private JsonBatchStreamer batchStreamer;
 
     @Autowired
-    public ItemController(ItemService itemService) {
+    public ItemController(ItemService itemService, ObjectMapper objectMapper) {
         this.itemService = itemService;
+        this.batchStreamer = new JsonBatchStreamer(objectMapper);
     }
 
     @PostMapping
@@ -35,6 +45,13 @@ public class ItemController {
         return itemService.addItem(itemDto, owner);
     }
 
+    @PostMapping("/batch")
+    public void addItems(HttpServletRequest request, HttpServletResponse response, @RequestHeader("X-Sharer-User-Id") Long owner) throws IOException, UserNotFoundException, ValidationException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        batchStreamer.stream(request.getInputStream(), response.getOutputStream(), ItemDto.class, x -> itemService.addItems(x, owner));
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@PathVariable Long itemId, @RequestBody @Valid ItemDto itemDto, @RequestHeader("X-Sharer-User-Id") Long owner) throws IncorrectOwnerException, ItemNotFoundException {
         return itemService.updateItem(itemId, owner, itemDto);
@@ -51,8 +68,15 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItem(@RequestParam String text, @RequestParam(required = false, defaultValue = "0") Integer from, @RequestParam(required = false, defaultValue = "20") Integer size) throws PaginationNotCorrectException {
-        return itemService.searchItem(text, from, size);
+    public List<ItemDto> searchItem(@RequestParam String text, @RequestParam(required = false, defaultValue = "0") Integer from, @RequestParam(required = false, defaultValue = "20") Integer size, @RequestParam(required = false) String cursor, HttpServletResponse response) throws PaginationNotCorrectException {
+        List<ItemDto> items = cursor == null
+                ? itemService.searchItem(text, from, size)
+                : itemService.searchItemAfter(text, cursor, size);
+        String next = PageCursor.next(items, size, x -> new PageCursor(null, x.getId()));
+        if (next != null) {
+            response.setHeader(PageCursor.HEADER, next);
+        }
+        return items;
     }
 
     @PostMapping("/{itemId}/comment")
@@ -1,11 +1,30 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 public interface CommentJpaRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findCommentsByItemId(Long itemId);
+    /**
+     * Comments of an item card. Served from the query cache, which keeps projection rows as values:
+     * comment entities assembled from cache would come with an uninitialized author.
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select c.id as id, c.text as text, a.name as authorName from Comment c join c.author a " +
+            "where c.item.id = :itemId order by c.id")
+    List<CommentView> findViewsByItemId(@Param("itemId") Long itemId);
+
+    @Query("select c from Comment c where c.item.id in :itemIds")
+    @EntityGraph(Comment.WITH_AUTHOR)
+    List<Comment> findCommentsByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.repository;
+
+/**
+ * Comment columns of an item card together with the author's name. Unlike comment entities, cached rows
+ * of this projection need no session to be mapped.
+ */
+public interface CommentView {
+    Long getId();
+
+    String getText();
+
+    String getAuthorName();
+}
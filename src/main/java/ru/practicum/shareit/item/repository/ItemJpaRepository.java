@@ -1,20 +1,72 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
 public interface ItemJpaRepository extends JpaRepository<Item, Long> {
-    List<Item> findAllByOwner(User owner);
+    String CACHE = "items";
+    String VIEW_COLUMNS = "i.id as id, i.name as name, i.description as description, i.available as available, " +
+            "i.request.id as requestId, i.owner.id as ownerId";
+    /**
+     * Same folding as {@link ru.practicum.shareit.item.search.ItemSearchIndex#normalize}: lower case, ё as е.
+     */
+    String FOLDED_NAME = "function('translate', lower(i.name), 'ё', 'е')";
+    String FOLDED_DESCRIPTION = "function('translate', lower(i.description), 'ё', 'е')";
+
+    @Override
+    @EntityGraph(Item.WITH_OWNER)
+    Optional<Item> findById(Long id);
+
+    /**
+     * Cached like {@link ru.practicum.shareit.user.repository.UserJpaRepository#findViewById}: serves the owner checks
+     * of bookings without loading the item entity.
+     */
+    @Cacheable(cacheNames = CACHE, unless = "#result == null")
+    @Query("select " + VIEW_COLUMNS + " from Item i where i.id = :id")
+    Optional<ItemView> findViewById(@Param("id") Long id);
+
+    /**
+     * Reads the item with SELECT ... FOR UPDATE; bookings of the item are inserted under this lock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :id")
+    Optional<Item> findLockedById(@Param("id") Long id);
 
-    Page<Item> findAllByOwner(User owner, Pageable pageable);
+    @Query("select " + VIEW_COLUMNS + " from Item i where i.owner.id = :ownerId order by i.id desc")
+    List<ItemView> findViewsByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
 
+    @Query("select " + VIEW_COLUMNS + " from Item i where i.id in :ids order by i.id")
+    List<ItemView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Item> findItemsByRequestId(Long requestId);
 
+    @Query("select " + VIEW_COLUMNS + " from Item i where i.request.id in :requestIds order by i.id")
+    List<ItemView> findViewsByRequestIdIn(@Param("requestIds") Collection<Long> requestIds);
+
     Page<Item> findAll(Pageable pageable);
 
+    List<Item> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select " + VIEW_COLUMNS + " from Item i where i.available = true and i.id > :afterId " +
+            "and (" + FOLDED_NAME + " like :pattern escape '\\' or " + FOLDED_DESCRIPTION + " like :pattern escape '\\') " +
+            "order by i.id")
+    List<ItemView> searchAvailable(@Param("pattern") String pattern, @Param("afterId") Long afterId, Pageable pageable);
+
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.repository;
+
+/**
+ * Item columns of an item list, read without loading the owner and request entities.
+ */
+public interface ItemView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getRequestId();
+
+    Long getOwnerId();
+}
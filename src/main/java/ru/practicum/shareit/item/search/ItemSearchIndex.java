@@ -0,0 +1,233 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemJpaRepository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over the name and description of available items.
+ * Every word is split into trigrams; a posting list holds the sorted ids of the items containing the trigram.
+ * A query is resolved by intersecting the postings of its trigrams and checking the remaining candidates
+ * for the substring, so the semantics match the SQL LIKE search.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final Locale RU = new Locale("RU");
+    private static final int GRAM = 3;
+
+    private final ItemJpaRepository itemRepository;
+    private final int chunkSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, LongPostings> postings = new HashMap<>();
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private final LongPostings allIds = new LongPostings();
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemJpaRepository itemRepository,
+                           @Value("${shareit.search.rebuild-chunk-size:1000}") int chunkSize) {
+        this.itemRepository = itemRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            allIds.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long lastId = 0;
+        int indexed = 0;
+        List<Item> chunk;
+        do {
+            lock.writeLock().lock();
+            try {
+                chunk = itemRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, chunkSize));
+                for (Item item : chunk) {
+                    put(item);
+                    lastId = item.getId();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            indexed += chunk.size();
+        } while (chunk.size() == chunkSize);
+        ready = true;
+        log.info("Индекс поиска вещей построен, обработано вещей: {}", indexed);
+    }
+
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            put(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns ids of available items containing the text, ordered by id and limited to the requested page.
+     */
+    public List<Long> search(String text, int from, int size) {
+        return search(text, 0, from, size);
+    }
+
+    /**
+     * Same as {@link #search(String, int, int)}, but the page starts right after the given id instead of an offset.
+     */
+    public List<Long> searchAfter(String text, long afterId, int size) {
+        return search(text, afterId, 0, size);
+    }
+
+    private List<Long> search(String text, long afterId, int from, int size) {
+        String query = normalize(text);
+        List<Long> page = new ArrayList<>(Math.min(size, 64));
+        lock.readLock().lock();
+        try {
+            LongPostings candidates = candidates(query);
+            int skipped = 0;
+            for (int i = candidates.indexAfter(afterId); i < candidates.size() && page.size() < size; i++) {
+                long id = candidates.get(i);
+                if (!documents.get(id).contains(query)) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                } else {
+                    page.add(id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return page;
+    }
+
+    private LongPostings candidates(String query) {
+        List<LongPostings> lists = new ArrayList<>();
+        for (String token : tokenize(query)) {
+            for (int i = 0; i + GRAM <= token.length(); i++) {
+                LongPostings list = postings.get(gram(token, i));
+                if (list == null) {
+                    return LongPostings.EMPTY;
+                }
+                lists.add(list);
+            }
+        }
+        if (lists.isEmpty()) {
+            return allIds;
+        }
+        lists.sort((x, y) -> Integer.compare(x.size(), y.size()));
+        LongPostings result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.size() > 0; i++) {
+            result = result.intersect(lists.get(i));
+        }
+        return result;
+    }
+
+    private void put(Item item) {
+        delete(item.getId());
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        IndexedItem document = new IndexedItem(normalize(item.getName()), normalize(item.getDescription()));
+        documents.put(item.getId(), document);
+        allIds.add(item.getId());
+        for (long key : document.grams()) {
+            postings.computeIfAbsent(key, x -> new LongPostings()).add(item.getId());
+        }
+    }
+
+    private void delete(Long itemId) {
+        IndexedItem document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        allIds.remove(itemId);
+        for (long key : document.grams()) {
+            LongPostings list = postings.get(key);
+            if (list != null && list.remove(itemId) && list.size() == 0) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Lower case with ё folded to е. The SQL fallback search applies the same folding on both sides of LIKE.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(RU).replace('ё', 'е');
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                tokens.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static long gram(String token, int offset) {
+        return ((long) token.charAt(offset) << 32)
+                | ((long) token.charAt(offset + 1) << 16)
+                | token.charAt(offset + 2);
+    }
+
+    private static class IndexedItem {
+        private final String name;
+        private final String description;
+
+        IndexedItem(String name, String description) {
+            this.name = name;
+            this.description = description;
+        }
+
+        boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        long[] grams() {
+            LongPostings keys = new LongPostings();
+            for (String text : List.of(name, description)) {
+                for (String token : tokenize(text)) {
+                    for (int i = 0; i + GRAM <= token.length(); i++) {
+                        keys.add(gram(token, i));
+                    }
+                }
+            }
+            return keys.toArray();
+        }
+    }
+}
@@ -12,6 +12,7 @@ import ru.practicum.shareit.requests.RequestNotFoundException;
 import ru.practicum.shareit.user.IncorrectOwnerException;
 import ru.practicum.shareit.user.UserNotFoundException;
 import ru.practicum.shareit.user.ValidationException;
+import ru.practicum.shareit.utils.BatchResultDto;
 import ru.practicum.shareit.utils.PaginationNotCorrectException;
 
 import java.util.List;
@@ -26,7 +27,11 @@ public interface ItemService {
 
     List<ItemWithBooking> getItems(Long owner, Integer from, Integer size) throws UserNotFoundException, PaginationNotCorrectException;
 
+    List<BatchResultDto> addItems(List<ItemDto> items, Long owner) throws UserNotFoundException;
+
     List<ItemDto> searchItem(String text, Integer from, Integer size) throws PaginationNotCorrectException;
 
+    List<ItemDto> searchItemAfter(String text, String cursor, Integer size) throws PaginationNotCorrectException;
+
     CommentDto addComment(Comment comment, Long itemId, Long owner) throws IncorrectBookingException, IncorrectCommentException;
 }
@@ -1,15 +1,19 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookStatus;
 import ru.practicum.shareit.booking.IncorrectBookingException;
-import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingJpaRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaries;
+import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.IncorrectCommentException;
 import ru.practicum.shareit.item.ItemNotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -18,7 +22,11 @@ import ru.practicum.shareit.item.dto.ItemWithBooking;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentJpaRepository;
+import ru.practicum.shareit.item.repository.CommentView;
 import ru.practicum.shareit.item.repository.ItemJpaRepository;
+import ru.practicum.shareit.item.repository.ItemView;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.monitoring.RequestProfile;
 import ru.practicum.shareit.requests.RequestNotFoundException;
 import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.requests.repository.ItemRequestJpaRepository;
@@ -27,22 +35,27 @@ import ru.practicum.shareit.user.UserNotFoundException;
 import ru.practicum.shareit.user.ValidationException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserJpaRepository;
+import ru.practicum.shareit.utils.AfterCommit;
+import ru.practicum.shareit.utils.BatchResultDto;
 import ru.practicum.shareit.utils.MyPageable;
+import ru.practicum.shareit.utils.PageCursor;
 import ru.practicum.shareit.utils.PaginationNotCorrectException;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import static ru.practicum.shareit.booking.BookingMapper.toBookerDto;
 import static ru.practicum.shareit.item.CommentMapper.toCommentDto;
 import static ru.practicum.shareit.item.ItemMapper.*;
 import static ru.practicum.shareit.utils.PaginationValidation.validatePagination;
 
 @Service
+@Timed("shareit.service")
 public class ItemServiceImpl implements ItemService {
 
     private final ItemJpaRepository itemRepository;
@@ -50,18 +63,26 @@ public class ItemServiceImpl implements ItemService {
     private final BookingJpaRepository bookingJpaRepository;
     private final CommentJpaRepository commentJpaRepository;
     private final ItemRequestJpaRepository itemRequestJpaRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemBookingSummaries itemBookingSummaries;
+    private final CacheManager cacheManager;
 
     @Autowired
     public ItemServiceImpl(ItemJpaRepository itemRepository, UserJpaRepository userRepository,
-                           BookingJpaRepository bookingJpaRepository, CommentJpaRepository commentJpaRepository, ItemRequestJpaRepository itemRequestJpaRepository) {
+                           BookingJpaRepository bookingJpaRepository, CommentJpaRepository commentJpaRepository, ItemRequestJpaRepository itemRequestJpaRepository,
+                           ItemSearchIndex itemSearchIndex, ItemBookingSummaries itemBookingSummaries, CacheManager cacheManager) {
         this.itemRepository = itemRepository;
         this.userRepository = userRepository;
         this.bookingJpaRepository = bookingJpaRepository;
         this.commentJpaRepository = commentJpaRepository;
         this.itemRequestJpaRepository = itemRequestJpaRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemBookingSummaries = itemBookingSummaries;
+        this.cacheManager = cacheManager;
     }
 
     @Override
+    @Transactional
     public ItemDto addItem(ItemDto itemDto, Long owner) throws UserNotFoundException, ValidationException, RequestNotFoundException {
         User user = userRepository.findById(owner).orElseThrow(() -> new UserNotFoundException("Пользователя не существует с id" + owner + "не существует"));
         if (!ItemDto.validateItem(itemDto)) {
@@ -69,15 +90,56 @@ public class ItemServiceImpl implements ItemService {
         }
         ItemRequest itemRequest = null;
         if (itemDto.getRequestId() != null) {
-            itemRequest = itemRequestJpaRepository.findById(itemDto.getRequestId()).orElseThrow(() -> new RequestNotFoundException("Запроса не существует"));
+            itemRequest = itemRequestJpaRepository.findById(itemDto.getRequestId()).orElseThrow(() -> RequestNotFoundException.NOT_EXISTS);
         }
-        Item item = fromItemDto(itemDto, user, itemRequest);
-        return toItemDto(itemRepository.save(item));
+        ItemRequest request = itemRequest;
+        Item item = itemRepository.save(RequestProfile.mapping(() -> fromItemDto(itemDto, user, request)));
+        itemBookingSummaries.create(List.of(item.getId()));
+        indexAfterCommit(List.of(item));
+        return RequestProfile.mapping(() -> toItemDto(item));
     }
 
     @Override
+    @Transactional
+    public List<BatchResultDto> addItems(List<ItemDto> items, Long owner) throws UserNotFoundException {
+        User user = userRepository.findById(owner).orElseThrow(() -> new UserNotFoundException("Пользователя не существует с id" + owner + "не существует"));
+        Set<Long> requestIds = items.stream()
+                .filter(Objects::nonNull)
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = requestIds.isEmpty() ? Map.of() : itemRequestJpaRepository.findAllById(requestIds)
+                .stream()
+                .collect(Collectors.toMap(ItemRequest::getId, x -> x));
+        List<BatchResultDto> results = new ArrayList<>(items.size());
+        List<Item> pending = new ArrayList<>(items.size());
+        List<BatchResultDto> pendingResults = new ArrayList<>(items.size());
+        for (ItemDto itemDto : items) {
+            if (itemDto == null || !ItemDto.validateItem(itemDto)) {
+                results.add(BatchResultDto.failed("параметры вещи заданы некорректно"));
+            } else if (itemDto.getRequestId() != null && !requests.containsKey(itemDto.getRequestId())) {
+                results.add(BatchResultDto.failed("Запроса не существует"));
+            } else {
+                BatchResultDto result = new BatchResultDto();
+                ItemRequest request = itemDto.getRequestId() == null ? null : requests.get(itemDto.getRequestId());
+                pending.add(RequestProfile.mapping(() -> fromItemDto(itemDto, user, request)));
+                pendingResults.add(result);
+                results.add(result);
+            }
+        }
+        List<Item> saved = itemRepository.saveAll(pending);
+        itemBookingSummaries.create(saved.stream().map(Item::getId).collect(Collectors.toList()));
+        for (int i = 0; i < saved.size(); i++) {
+            pendingResults.get(i).setId(saved.get(i).getId());
+        }
+        indexAfterCommit(saved);
+        return results;
+    }
+
+    @Override
+    @Transactional
     public ItemDto updateItem(Long itemId, Long owner, ItemDto itemDto) throws IncorrectOwnerException, ItemNotFoundException {
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException("Запрашиваемой вещи не существует"));
+        Item item = itemRepository.findById(itemId).orElseThrow(() -> ItemNotFoundException.REQUESTED_NOT_EXISTS);
         if (!(item.getOwner().getId().equals(owner))) {
             throw new IncorrectOwnerException("Вещь не принадлежит указанному пользователю");
         }
@@ -92,62 +154,92 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) {
             item.setAvailable(itemDto.getAvailable());
         }
-        return toItemDto(itemRepository.save(item));
+        Item updated = itemRepository.save(item);
+        AfterCommit.evict(cacheManager, ItemJpaRepository.CACHE, itemId);
+        indexAfterCommit(List.of(updated));
+        return RequestProfile.mapping(() -> toItemDto(updated));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemWithBooking getItem(Long itemId, Long owner) throws ItemNotFoundException {
-        Item item = itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException("Запрашиваемой вещи не существует"));
+        Item item = itemRepository.findById(itemId).orElseThrow(() -> ItemNotFoundException.REQUESTED_NOT_EXISTS);
         if (owner.equals(item.getOwner().getId())) {
-            return toItemWithBooking(item, findLastBookingForItem(item.getId()), findNextBookingForItem(item.getId()), getCommentsList(commentJpaRepository.findCommentsByItemId(itemId)));
+            return toItemsWithBookings(List.of(RequestProfile.mapping(() -> toItemDto(item)))).get(0);
         } else {
-            return toItemWithBooking(item, null, null, getCommentsList(commentJpaRepository.findCommentsByItemId(itemId)));
+            List<CommentView> comments = commentJpaRepository.findViewsByItemId(itemId);
+            return RequestProfile.mapping(() -> toItemWithBooking(item, null, null, getCommentsList(comments)));
         }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemWithBooking> getItems(Long owner, Integer from, Integer size) throws UserNotFoundException, PaginationNotCorrectException {
-        User user = userRepository.findById(owner).orElseThrow(() -> new UserNotFoundException("Пользователя не существует с id " + owner + " не существует"));
+        if (userRepository.findViewById(owner).isEmpty()) {
+            throw new UserNotFoundException("Пользователя не существует с id " + owner + " не существует");
+        }
+        Pageable page = Pageable.unpaged();
         if (from != null && size != null && validatePagination(from, size)) {
-            Sort sortByCreated = Sort.by(Sort.Direction.DESC, "id");
-            Pageable page = new MyPageable(from, size, sortByCreated);
-            Page<Item> requestPage = itemRepository.findAllByOwner(user, page);
-            return requestPage.getContent()
-                    .stream()
-                    .map(x -> toItemWithBooking(x, findLastBookingForItem(x.getId()), findNextBookingForItem(x.getId()), getCommentsList(commentJpaRepository.findCommentsByItemId(x.getId()))))
-                    .sorted(Comparator.comparing(ItemWithBooking::getId))
-                    .collect(Collectors.toList());
-        }
-        return itemRepository.findAllByOwner(user)
+            page = new MyPageable(from, size, Sort.unsorted());
+        }
+        List<ItemView> views = itemRepository.findViewsByOwnerId(owner, page);
+        List<ItemDto> items = RequestProfile.mapping(() -> views.stream()
+                .map(x -> toItemDto(x))
+                .collect(Collectors.toList()));
+        return toItemsWithBookings(items)
                 .stream()
-                .map(x -> toItemWithBooking(x, findLastBookingForItem(x.getId()), findNextBookingForItem(x.getId()), getCommentsList(commentJpaRepository.findCommentsByItemId(x.getId()))))
                 .sorted(Comparator.comparing(ItemWithBooking::getId))
                 .collect(Collectors.toList());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemDto> searchItem(String text, Integer from, Integer size) throws PaginationNotCorrectException {
         if (text.isEmpty() || text.isBlank()) {
             return new ArrayList<>();
         }
-        String lowerText = text.toLowerCase();
-        if (validatePagination(from, size)) {
-            Sort sortByCreated = Sort.by(Sort.Direction.ASC, "id");
-            Pageable page = new MyPageable(from, size, sortByCreated);
-            Page<Item> requestPage = itemRepository.findAll(page);
-            return requestPage.getContent()
-                    .stream()
-                    .filter((x -> (x.getName().toLowerCase(new Locale("RU")).contains(lowerText))
-                            || (x.getDescription().toLowerCase(new Locale("RU")).contains(lowerText))))
-                    .filter(x -> x.getAvailable())
-                    .map(x -> toItemDto(x))
-                    .collect(Collectors.toList());
-        } else {
+        if (!validatePagination(from, size)) {
             throw new PaginationNotCorrectException("Некорректно заданы параметры постраничного вывода");
         }
+        if (itemSearchIndex.isReady()) {
+            return findItemsById(itemSearchIndex.search(text, from, size));
+        }
+        Pageable page = new MyPageable(from, size, Sort.unsorted());
+        return toItemDtos(itemRepository.searchAvailable(toSearchPattern(text), 0L, page));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> searchItemAfter(String text, String cursor, Integer size) throws PaginationNotCorrectException {
+        if (!validatePagination(0, size)) {
+            throw new PaginationNotCorrectException("Некорректно заданы параметры постраничного вывода");
+        }
+        long afterId = PageCursor.decode(cursor).getId();
+        if (text.isEmpty() || text.isBlank()) {
+            return new ArrayList<>();
+        }
+        if (itemSearchIndex.isReady()) {
+            return findItemsById(itemSearchIndex.searchAfter(text, afterId, size));
+        }
+        Pageable page = new MyPageable(0, size, Sort.unsorted());
+        return toItemDtos(itemRepository.searchAvailable(toSearchPattern(text), afterId, page));
+    }
+
+    private List<ItemDto> findItemsById(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return toItemDtos(itemRepository.findViewsByIdIn(ids));
+    }
+
+    private List<ItemDto> toItemDtos(List<ItemView> items) {
+        return RequestProfile.mapping(() -> items.stream()
+                .map(x -> toItemDto(x))
+                .collect(Collectors.toList()));
     }
 
     @Override
+    @Transactional
     public CommentDto addComment(Comment comment, Long itemId, Long owner) throws IncorrectBookingException, IncorrectCommentException {
         List<Booking> bookings = bookingJpaRepository.findByBookerIdAndItemIdAndStatus(owner, itemId, BookStatus.APPROVED);
         if (bookings.isEmpty()) {
@@ -165,46 +257,47 @@ public class ItemServiceImpl implements ItemService {
             User user = userRepository.findById(owner).orElseThrow(() -> new IncorrectBookingException("проверьте id владельца"));
             comment.setItem(item);
             comment.setAuthor(user);
-            return toCommentDto(commentJpaRepository.save(comment), user.getName());
+            Comment saved = commentJpaRepository.save(comment);
+            return RequestProfile.mapping(() -> toCommentDto(saved, user.getName()));
         }
     }
 
 
-    private BookerDto findNextBookingForItem(Long itemId) {
-        Item item = itemRepository.findById(itemId).get();
-        List<Booking> nextBookings = bookingJpaRepository.findByItemId(itemId)
-                .stream()
-                .filter(x -> x.getStart().isAfter(LocalDateTime.now()))
-                .sorted(Comparator.comparing(Booking::getStart))
-                .collect(Collectors.toList());
-        if (!nextBookings.isEmpty()) {
-            Booking nextBooking = nextBookings.get(0);
-            return toBookerDto(nextBooking, item, nextBooking.getBooker().getId());
-        } else {
-            return null;
-        }
+    /**
+     * The index only sees committed items: within a transaction they are indexed once it has committed.
+     */
+    private void indexAfterCommit(List<Item> items) {
+        AfterCommit.run(() -> items.forEach(itemSearchIndex::index));
     }
 
-    private BookerDto findLastBookingForItem(Long itemId) {
-        Item item = itemRepository.findById(itemId).get();
-        List<Booking> lastBookings = bookingJpaRepository.findByItemId(itemId)
-                .stream()
-                .filter(x -> x.getEnd().isBefore(LocalDateTime.now()))
-                .sorted(Comparator.comparing(Booking::getStart)
-                        .reversed())
-                .collect(Collectors.toList());
-        if (!lastBookings.isEmpty()) {
-            Booking lastBooking = lastBookings.get(0);
-            return toBookerDto(lastBooking, item, lastBooking.getBooker().getId());
-        } else {
-            return null;
+    private List<ItemWithBooking> toItemsWithBookings(List<ItemDto> items) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
         }
+        List<Long> itemIds = items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaries.get(itemIds);
+        List<Comment> found = commentJpaRepository.findCommentsByItemIdIn(itemIds);
+        return RequestProfile.mapping(() -> {
+            Map<Long, List<CommentDto>> comments = found.stream()
+                    .collect(Collectors.groupingBy(x -> x.getItem().getId(),
+                            Collectors.mapping(x -> toCommentDto(x, x.getAuthor().getName()), Collectors.toList())));
+            return toItemWithBookings(items, summaries, comments);
+        });
+    }
+
+    private static String toSearchPattern(String text) {
+        String escaped = ItemSearchIndex.normalize(text)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
     }
 
-    private List<CommentDto> getCommentsList(List<Comment> comments) {
-        List<CommentDto> dtoComments = comments.stream()
-                .map(x -> toCommentDto(x, userRepository.findById(x.getAuthor().getId()).get().getName()))
+    private List<CommentDto> getCommentsList(List<CommentView> comments) {
+        return comments.stream()
+                .map(CommentMapper::toCommentDto)
                 .collect(Collectors.toList());
-        return dtoComments;
     }
 }
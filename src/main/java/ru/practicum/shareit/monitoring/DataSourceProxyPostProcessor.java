@@ -0,0 +1,43 @@
+package ru.practicum.shareit.monitoring;
+
+import io.opentelemetry.api.trace.Tracer;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the data source used by JPA with a proxy reporting to {@link SlowQueryLog}, {@link RequestProfileListener}
+ * and {@link TracingQueryListener}. Only the bean named dataSource is wrapped: with a read replica that is
+ * the routing data source, so its pools are not measured twice.
+ */
+@Component
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+    private static final String DATA_SOURCE = "dataSource";
+
+    private final Duration threshold;
+    private final ObjectProvider<Tracer> tracer;
+
+    public DataSourceProxyPostProcessor(@Value("${shareit.sql.slow-query-threshold:500ms}") Duration threshold,
+                                        ObjectProvider<Tracer> tracer) {
+        this.threshold = threshold;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!DATA_SOURCE.equals(beanName) || !(bean instanceof DataSource)) {
+            return bean;
+        }
+        return ProxyDataSourceBuilder.create((DataSource) bean)
+                .name(beanName)
+                .listener(new SlowQueryLog(threshold))
+                .listener(new RequestProfileListener())
+                .listener(new TracingQueryListener(tracer))
+                .build();
+    }
+}
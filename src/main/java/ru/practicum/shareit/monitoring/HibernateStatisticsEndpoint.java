@@ -0,0 +1,94 @@
+package ru.practicum.shareit.monitoring;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * /actuator/hibernate: Hibernate statistics since start or the last reset. Off unless
+ * shareit.hibernate-statistics.enabled is set, and DELETE resets them only with
+ * shareit.hibernate-statistics.reset-enabled: otherwise it answers 404, so a caller cannot wipe the figures.
+ */
+@Component
+@Endpoint(id = "hibernate")
+@ConditionalOnProperty("shareit.hibernate-statistics.enabled")
+public class HibernateStatisticsEndpoint {
+    private static final int SLOWEST_QUERIES = 10;
+
+    private final Statistics statistics;
+    private final boolean resetEnabled;
+
+    public HibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory,
+                                       @Value("${shareit.hibernate-statistics.reset-enabled:false}") boolean resetEnabled) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.resetEnabled = resetEnabled;
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("since", Instant.ofEpochMilli(statistics.getStartTime()));
+        result.put("statements", statistics.getPrepareStatementCount());
+        result.put("queries", statistics.getQueryExecutionCount());
+        result.put("queryMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        result.put("entityLoads", statistics.getEntityLoadCount());
+        result.put("entityFetches", statistics.getEntityFetchCount());
+        result.put("collectionLoads", statistics.getCollectionLoadCount());
+        result.put("secondLevelCache", cache(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount()));
+        result.put("queryCache", cache(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount()));
+        result.put("slowestQueries", slowestQueries());
+        return result;
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Void> reset() {
+        if (!resetEnabled) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        statistics.clear();
+        return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+    }
+
+    private List<Map<String, Object>> slowestQueries() {
+        return Arrays.stream(statistics.getQueries())
+                .map(x -> Map.entry(x, statistics.getQueryStatistics(x)))
+                .filter(x -> x.getValue().getExecutionCount() > 0)
+                .sorted(Comparator.comparingLong((Map.Entry<String, QueryStatistics> x) -> x.getValue().getExecutionMaxTime()).reversed())
+                .limit(SLOWEST_QUERIES)
+                .map(x -> {
+                    Map<String, Object> query = new LinkedHashMap<>();
+                    query.put("query", x.getKey());
+                    query.put("executions", x.getValue().getExecutionCount());
+                    query.put("maxTimeMs", x.getValue().getExecutionMaxTime());
+                    query.put("avgTimeMs", x.getValue().getExecutionAvgTime());
+                    query.put("rows", x.getValue().getExecutionRowCount());
+                    return query;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, Object> cache(long hits, long misses) {
+        Map<String, Object> cache = new LinkedHashMap<>();
+        cache.put("hits", hits);
+        cache.put("misses", misses);
+        cache.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return cache;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Times the serialization of response bodies. The body is written straight to the response through a stream
+ * counting its bytes, so the Server-Timing headers sent ahead of it carry the database and mapping time only;
+ * the serialization time, which includes writing to the client, and the body size are logged by
+ * {@link RequestProfileFilter}.
+ */
+public class ProfiledJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+    public ProfiledJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        RequestProfile profile = RequestProfile.current();
+        if (profile == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        profile.serverTiming().forEach(x -> outputMessage.getHeaders().add(RequestProfile.SERVER_TIMING, x));
+        CountingOutputStream body = new CountingOutputStream(outputMessage.getBody());
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, new HttpOutputMessage() {
+                @Override
+                public OutputStream getBody() {
+                    return body;
+                }
+
+                @Override
+                public HttpHeaders getHeaders() {
+                    return outputMessage.getHeaders();
+                }
+            });
+        } finally {
+            profile.addSerialization(System.nanoTime() - start, body.count);
+        }
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
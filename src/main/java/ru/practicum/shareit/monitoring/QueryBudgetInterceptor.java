@@ -0,0 +1,40 @@
+package ru.practicum.shareit.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Warns when a request issued more SQL statements than its endpoint's budget. Runs after the response
+ * is written, so the warning carries the complete {@link RequestProfile}.
+ */
+@Slf4j
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+    private final QueryBudgets budgets;
+
+    public QueryBudgetInterceptor(QueryBudgets budgets) {
+        this.budgets = budgets;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestProfile profile = RequestProfile.current();
+        if (profile == null || !(handler instanceof HandlerMethod)) {
+            return;
+        }
+        String endpoint = endpoint((HandlerMethod) handler);
+        int budget = budgets.budgetFor(endpoint);
+        if (budget >= 0 && profile.getStatements() > budget) {
+            log.warn("Превышен бюджет SQL-запросов: endpoint={} {} {} budget={} {}", endpoint, request.getMethod(),
+                    request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE), budget, profile);
+        }
+    }
+
+    static String endpoint(HandlerMethod handler) {
+        return handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.monitoring;
+
+import lombok.Data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statements a request may issue: shareit.sql.query-budget for every endpoint, overridden per handler method
+ * by shareit.sql.query-budgets.[Controller.method]. A negative budget turns the check off.
+ */
+@Data
+public class QueryBudgets {
+    public static final int DEFAULT_BUDGET = 10;
+
+    private int queryBudget = DEFAULT_BUDGET;
+    private Map<String, Integer> queryBudgets = new HashMap<>();
+
+    public int budgetFor(String endpoint) {
+        return queryBudgets.getOrDefault(endpoint, queryBudget);
+    }
+}
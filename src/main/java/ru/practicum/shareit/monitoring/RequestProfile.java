@@ -0,0 +1,119 @@
+package ru.practicum.shareit.monitoring;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Where the time of the current HTTP request went: SQL statements and their time, mapping in the *Mapper classes
+ * and JSON serialization. Started by {@link RequestProfileFilter}.
+ */
+public class RequestProfile {
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long dbNanos;
+    private long statementStart;
+    private long mappingNanos;
+    private int mappingDepth;
+    private long serializationNanos;
+    private long bodyBytes;
+    private boolean reported;
+
+    static RequestProfile start() {
+        RequestProfile profile = new RequestProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static RequestProfile current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs a call of a *Mapper method and adds its time to the request. Nested mappings are counted once, by the
+     * outermost one, and statements run inside, by lazy loading, count as db time rather than mapping.
+     * Outside a request the mapping just runs.
+     */
+    public static <T> T mapping(Supplier<T> mapping) {
+        RequestProfile profile = CURRENT.get();
+        if (profile == null) {
+            return mapping.get();
+        }
+        long start = System.nanoTime();
+        long db = profile.dbNanos;
+        profile.mappingDepth++;
+        try {
+            return mapping.get();
+        } finally {
+            if (--profile.mappingDepth == 0) {
+                profile.mappingNanos += System.nanoTime() - start - (profile.dbNanos - db);
+            }
+        }
+    }
+
+    void statementStarted() {
+        statementStart = System.nanoTime();
+    }
+
+    void statementFinished() {
+        statements++;
+        dbNanos += System.nanoTime() - statementStart;
+    }
+
+    void addSerialization(long nanos, long bytes) {
+        serializationNanos += nanos;
+        bodyBytes += bytes;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public double getDbMillis() {
+        return millis(dbNanos);
+    }
+
+    public double getMappingMillis() {
+        return millis(mappingNanos);
+    }
+
+    public double getSerializationMillis() {
+        return millis(serializationNanos);
+    }
+
+    public long getBodyBytes() {
+        return bodyBytes;
+    }
+
+    /**
+     * Server-Timing header values; after the first call the profile counts as reported. The headers are sent ahead
+     * of the body, so serialization is not among them: it is logged with the rest of the profile.
+     */
+    List<String> serverTiming() {
+        reported = true;
+        return List.of(
+                String.format(Locale.ROOT, "db;dur=%.3f;desc=\"%d statements\"", getDbMillis(), statements),
+                String.format(Locale.ROOT, "mapping;dur=%.3f", getMappingMillis()));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "statements=%d db_ms=%.3f mapping_ms=%.3f serialization_ms=%.3f body_bytes=%d",
+                statements, getDbMillis(), getMappingMillis(), getSerializationMillis(), bodyBytes);
+    }
+
+    boolean isReported() {
+        return reported;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Starts the {@link RequestProfile} of each request. JSON bodies report it themselves, see
+ * {@link ProfiledJackson2HttpMessageConverter}; responses without one get the Server-Timing headers here,
+ * unless the handler has already committed the response by streaming it. The complete profile, serialization
+ * included, is logged at debug level once the response is written.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class RequestProfileFilter extends OncePerRequestFilter {
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestProfile profile = RequestProfile.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!profile.isReported() && !response.isCommitted()) {
+                profile.serverTiming().forEach(x -> response.addHeader(RequestProfile.SERVER_TIMING, x));
+            }
+            log.debug("Профиль запроса: {} {} status={} {}", request.getMethod(), request.getRequestURI(),
+                    response.getStatus(), profile);
+            RequestProfile.end();
+        }
+    }
+}
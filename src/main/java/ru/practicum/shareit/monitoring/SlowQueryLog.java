@@ -0,0 +1,60 @@
+package ru.practicum.shareit.monitoring;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Logs statements that ran at least the threshold, with their SQL, the number of bound parameters and
+ * the application method that issued them. The caller is only looked up for slow statements.
+ */
+@Slf4j
+public class SlowQueryLog implements QueryExecutionListener {
+    private static final String APP_PACKAGE = "ru.practicum.shareit.";
+    private static final String OWN_PACKAGE = SlowQueryLog.class.getPackageName() + ".";
+
+    private final long thresholdMillis;
+
+    public SlowQueryLog(Duration threshold) {
+        this.thresholdMillis = threshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis) {
+            return;
+        }
+        int binds = queryInfoList.stream()
+                .flatMap(x -> x.getParametersList().stream())
+                .mapToInt(List::size)
+                .sum();
+        String sql = queryInfoList.stream()
+                .map(QueryInfo::getQuery)
+                .collect(Collectors.joining("; "));
+        log.warn("Медленный запрос: duration_ms={} batch_size={} binds={} success={} caller={} sql={}",
+                execInfo.getElapsedTime(), execInfo.isBatch() ? execInfo.getBatchSize() : 0, binds,
+                execInfo.isSuccess(), caller(), sql);
+    }
+
+    /**
+     * Innermost application frame below the JDBC call: the service or component method, as repositories are proxies.
+     */
+    static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(x -> x.getClassName().startsWith(APP_PACKAGE)
+                        && !x.getClassName().startsWith(OWN_PACKAGE)
+                        && !x.getClassName().contains("$$"))
+                .findFirst()
+                .map(x -> x.getClassName().substring(x.getClassName().lastIndexOf('.') + 1) + "." + x.getMethodName())
+                .orElse("unknown"));
+    }
+}
@@ -0,0 +1,161 @@
+package ru.practicum.shareit.monitoring;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.CodeSignature;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.Repository;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * One span per controller method, *ServiceImpl method and repository call, nested as the calls are.
+ * Spans carry the X-Sharer-User-Id of the request, the arguments that are entity ids
+ * (shareit.item_id, shareit.item_ids and so on) and the number of rows a call returned.
+ * Runs outside the transaction and cache advice, so a cache hit shows as a repository span without SQL.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingAspect {
+    public static final String USER_HEADER = "X-Sharer-User-Id";
+    public static final AttributeKey<Long> USER_ID = AttributeKey.longKey("shareit.user_id");
+    public static final AttributeKey<Long> ROWS = AttributeKey.longKey("shareit.rows");
+    public static final AttributeKey<String> HTTP_METHOD = AttributeKey.stringKey("http.method");
+    public static final AttributeKey<String> HTTP_ROUTE = AttributeKey.stringKey("http.route");
+
+    private final Tracer tracer;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        SpanBuilder span = spanBuilder(joinPoint, joinPoint.getSignature().getDeclaringType().getSimpleName(), SpanKind.SERVER);
+        HttpServletRequest request = currentRequest();
+        if (request != null) {
+            span.setAttribute(HTTP_METHOD, request.getMethod());
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (route != null) {
+                span.setAttribute(HTTP_ROUTE, route.toString());
+            }
+            String userId = request.getHeader(USER_HEADER);
+            if (userId != null && userId.matches("\\d{1,18}")) {
+                span.setAttribute(USER_ID, Long.parseLong(userId));
+            }
+        }
+        return proceed(span, joinPoint);
+    }
+
+    @Around("execution(* ru.practicum.shareit..*ServiceImpl.*(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return proceed(spanBuilder(joinPoint, joinPoint.getSignature().getDeclaringType().getSimpleName(), SpanKind.INTERNAL),
+                joinPoint);
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryNames.computeIfAbsent(joinPoint.getThis().getClass(),
+                x -> repositoryName(joinPoint.getThis()));
+        return proceed(spanBuilder(joinPoint, repository, SpanKind.INTERNAL), joinPoint);
+    }
+
+    private SpanBuilder spanBuilder(ProceedingJoinPoint joinPoint, String type, SpanKind kind) {
+        SpanBuilder span = tracer.spanBuilder(type + "." + joinPoint.getSignature().getName()).setSpanKind(kind);
+        String[] names = ((CodeSignature) joinPoint.getSignature()).getParameterNames();
+        Object[] args = joinPoint.getArgs();
+        if (names == null) {
+            return span;
+        }
+        for (int i = 0; i < names.length && i < args.length; i++) {
+            setIdAttribute(span, names[i], args[i]);
+        }
+        return span;
+    }
+
+    private Object proceed(SpanBuilder spanBuilder, ProceedingJoinPoint joinPoint) throws Throwable {
+        Span span = spanBuilder.startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            Object result = joinPoint.proceed();
+            Long rows = rows(result);
+            if (rows != null) {
+                span.setAttribute(ROWS, rows);
+            }
+            return result;
+        } catch (Throwable e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR, e.getClass().getSimpleName());
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Long arguments named id or *Id become shareit.&lt;snake_case&gt;, collections of them named *Ids a long array.
+     */
+    static void setIdAttribute(SpanBuilder span, String name, Object value) {
+        if (value instanceof Long && (name.equals("id") || name.endsWith("Id"))) {
+            span.setAttribute(AttributeKey.longKey(attributeName(name)), (Long) value);
+        } else if (value instanceof Collection && name.endsWith("Ids")) {
+            List<Long> ids = ((Collection<?>) value).stream()
+                    .filter(x -> x instanceof Long)
+                    .map(x -> (Long) x)
+                    .collect(Collectors.toList());
+            span.setAttribute(AttributeKey.longArrayKey(attributeName(name)), ids);
+        }
+    }
+
+    static String attributeName(String name) {
+        return "shareit." + name.replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase();
+    }
+
+    static Long rows(Object result) {
+        if (result instanceof Collection) {
+            return (long) ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return (long) ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1L : 0L;
+        }
+        return null;
+    }
+
+    private static String repositoryName(Object proxy) {
+        for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(proxy)) {
+            if (Repository.class.isAssignableFrom(type)) {
+                return type.getSimpleName();
+            }
+        }
+        return proxy.getClass().getSimpleName();
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes ? ((ServletRequestAttributes) attributes).getRequest() : null;
+    }
+}
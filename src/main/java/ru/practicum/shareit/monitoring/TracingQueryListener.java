@@ -0,0 +1,73 @@
+package ru.practicum.shareit.monitoring;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A child span per JDBC execution, so lazy loads and other statements issued outside repository calls
+ * show up in the trace too. Statements outside a traced call, such as migrations, are not traced.
+ */
+public class TracingQueryListener implements QueryExecutionListener {
+    public static final AttributeKey<String> DB_STATEMENT = AttributeKey.stringKey("db.statement");
+    public static final AttributeKey<Long> BATCH_SIZE = AttributeKey.longKey("db.batch_size");
+
+    private static final String SPAN = TracingQueryListener.class.getName();
+
+    private final ObjectProvider<Tracer> tracerProvider;
+    private volatile Tracer tracer;
+
+    public TracingQueryListener(ObjectProvider<Tracer> tracerProvider) {
+        this.tracerProvider = tracerProvider;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!Span.current().getSpanContext().isValid()) {
+            return;
+        }
+        Tracer tracer = tracer();
+        if (tracer == null) {
+            return;
+        }
+        String sql = queryInfoList.stream()
+                .map(QueryInfo::getQuery)
+                .collect(Collectors.joining("; "));
+        execInfo.addCustomValue(SPAN, tracer.spanBuilder("sql")
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute(DB_STATEMENT, sql)
+                .startSpan());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Span span = execInfo.getCustomValue(SPAN, Span.class);
+        if (span == null) {
+            return;
+        }
+        if (execInfo.isBatch()) {
+            span.setAttribute(BATCH_SIZE, execInfo.getBatchSize());
+        }
+        if (!execInfo.isSuccess()) {
+            span.recordException(execInfo.getThrowable());
+            span.setStatus(StatusCode.ERROR);
+        }
+        span.end();
+    }
+
+    private Tracer tracer() {
+        if (tracer == null) {
+            tracer = tracerProvider.getIfAvailable();
+        }
+        return tracer;
+    }
+}
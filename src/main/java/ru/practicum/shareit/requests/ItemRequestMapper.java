@@ -4,6 +4,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.requests.repository.ItemRequestView;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -20,6 +21,14 @@ public class ItemRequestMapper {
                 itemDtos);
     }
 
+    public static ItemRequestDto toItemRequestDto(ItemRequestView itemRequest, List<ItemDto> items) {
+        return new ItemRequestDto(itemRequest.getId(),
+                itemRequest.getDescription(),
+                itemRequest.getRequestorId(),
+                itemRequest.getCreated(),
+                items);
+    }
+
     public static ItemRequest fromItemRequestDto(ItemRequestDto itemRequestDto) {
         ItemRequest itemRequest = new ItemRequest();
         itemRequest.setDescription(itemRequestDto.getDescription());
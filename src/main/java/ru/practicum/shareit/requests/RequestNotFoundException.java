@@ -1,8 +1,12 @@
 package ru.practicum.shareit.requests;
 
-public class RequestNotFoundException extends Exception {
+import ru.practicum.shareit.utils.ErrorCode;
+import ru.practicum.shareit.utils.ShareItException;
+
+public class RequestNotFoundException extends ShareItException {
+    public static final RequestNotFoundException NOT_EXISTS = new RequestNotFoundException("Запроса не существует");
 
     public RequestNotFoundException(String message) {
-        super(message);
+        super(ErrorCode.REQUEST_NOT_FOUND, message);
     }
 }
@@ -7,8 +7,10 @@ import ru.practicum.shareit.requests.RequestNotFoundException;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.service.ItemRequestService;
 import ru.practicum.shareit.user.UserNotFoundException;
+import ru.practicum.shareit.utils.PageCursor;
 import ru.practicum.shareit.utils.PaginationNotCorrectException;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.util.List;
 
@@ -33,8 +35,15 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllItemRequestDtos(@RequestHeader("X-Sharer-User-Id") Long requestor, @RequestParam(required = false, defaultValue = "0") Integer from, @RequestParam(required = false, defaultValue = "20") Integer size) throws UserNotFoundException, PaginationNotCorrectException {
-        return itemRequestService.getAllItemRequestDtos(requestor, from, size);
+    public List<ItemRequestDto> getAllItemRequestDtos(@RequestHeader("X-Sharer-User-Id") Long requestor, @RequestParam(required = false, defaultValue = "0") Integer from, @RequestParam(required = false, defaultValue = "20") Integer size, @RequestParam(required = false) String cursor, HttpServletResponse response) throws UserNotFoundException, PaginationNotCorrectException {
+        List<ItemRequestDto> requests = cursor == null
+                ? itemRequestService.getAllItemRequestDtos(requestor, from, size)
+                : itemRequestService.getAllItemRequestDtosAfter(requestor, cursor, size);
+        String next = PageCursor.next(requests, size, x -> new PageCursor(x.getCreated(), x.getId()));
+        if (next != null) {
+            response.setHeader(PageCursor.HEADER, next);
+        }
+        return requests;
     }
 
     @GetMapping("/{requestId}")
@@ -2,7 +2,11 @@ package ru.practicum.shareit.requests.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -12,22 +16,31 @@ import java.util.List;
 
 
 @Entity
+@NamedEntityGraph(name = ItemRequest.WITH_REQUESTOR, attributeNodes = @NamedAttributeNode("requestor"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "requests")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class ItemRequest {
+    public static final String WITH_REQUESTOR = "ItemRequest.withRequestor";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id;
     @Column(name = "description")
     private String description;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "requestor_id")
     private User requestor;
     @Column(name = "created")
     private LocalDateTime created;
-    @OneToMany
-    @JoinColumn(name = "request_id")
+    @OneToMany(mappedBy = "request")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Item> responses;
 }
@@ -1,8 +1,35 @@
 package ru.practicum.shareit.requests.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.requests.model.ItemRequest;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 public interface ItemRequestJpaRepository extends JpaRepository<ItemRequest, Long> {
+    String VIEW_COLUMNS = "r.id as id, r.description as description, r.requestor.id as requestorId, r.created as created";
+
+    @Override
+    @EntityGraph(ItemRequest.WITH_REQUESTOR)
+    Optional<ItemRequest> findById(Long id);
+
+    @Query("select " + VIEW_COLUMNS + " from ItemRequest r where r.requestor.id = :requestorId " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequestView> findViewsByRequestorId(@Param("requestorId") Long requestorId);
 
+    /**
+     * Requests of other users, newest first, starting after the cursor. Offset pages start at the latest possible cursor.
+     */
+    @Query("select " + VIEW_COLUMNS + " from ItemRequest r where r.requestor.id <> :userId " +
+            "and (r.created < :cursorCreated or (r.created = :cursorCreated and r.id < :cursorId)) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequestView> seekOtherUsersRequests(@Param("userId") Long userId,
+                                                 @Param("cursorCreated") LocalDateTime cursorCreated,
+                                                 @Param("cursorId") Long cursorId,
+                                                 Pageable pageable);
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.requests.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Request columns of a request feed, read without loading the requestor.
+ */
+public interface ItemRequestView {
+    Long getId();
+
+    String getDescription();
+
+    Long getRequestorId();
+
+    LocalDateTime getCreated();
+}
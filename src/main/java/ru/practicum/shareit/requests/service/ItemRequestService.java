@@ -17,4 +17,6 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getAllItemRequestDtos(Long requestor, Integer from, Integer size) throws UserNotFoundException, PaginationNotCorrectException;
 
+    List<ItemRequestDto> getAllItemRequestDtosAfter(Long requestor, String cursor, Integer size) throws UserNotFoundException, PaginationNotCorrectException;
+
 }
@@ -1,31 +1,41 @@
 package ru.practicum.shareit.requests.service;
 
-import org.springframework.data.domain.Page;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.RequestNotCorrectException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemJpaRepository;
+import ru.practicum.shareit.item.repository.ItemView;
+import ru.practicum.shareit.monitoring.RequestProfile;
 import ru.practicum.shareit.requests.RequestNotFoundException;
 import ru.practicum.shareit.requests.dto.ItemRequestDto;
 import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.requests.repository.ItemRequestJpaRepository;
+import ru.practicum.shareit.requests.repository.ItemRequestView;
 import ru.practicum.shareit.user.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserJpaRepository;
 import ru.practicum.shareit.utils.MyPageable;
+import ru.practicum.shareit.utils.PageCursor;
 import ru.practicum.shareit.utils.PaginationNotCorrectException;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import static ru.practicum.shareit.item.ItemMapper.toItemDto;
 import static ru.practicum.shareit.requests.ItemRequestMapper.fromItemRequestDto;
 import static ru.practicum.shareit.requests.ItemRequestMapper.toItemRequestDto;
 import static ru.practicum.shareit.utils.PaginationValidation.validatePagination;
 
 @Service
+@Timed("shareit.service")
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestJpaRepository itemRequestJpaRepository;
     private final ItemJpaRepository itemJpaRepository;
@@ -41,55 +51,85 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDto addItemRequest(ItemRequestDto itemRequestDto, Long requestor) throws UserNotFoundException, RequestNotCorrectException {
-        User user = userJpaRepository.findById(requestor).orElseThrow(() -> new UserNotFoundException("Пользователя не существует"));
-        ItemRequest itemRequest = fromItemRequestDto(itemRequestDto);
+        User user = userJpaRepository.findById(requestor).orElseThrow(() -> UserNotFoundException.NOT_EXISTS);
+        ItemRequest itemRequest = RequestProfile.mapping(() -> fromItemRequestDto(itemRequestDto));
         if (itemRequest.getDescription().isBlank()
                 || itemRequest.getDescription().isEmpty()) {
             throw new RequestNotCorrectException("Проверьте корректность описания запроса");
         }
         itemRequest.setRequestor(user);
         itemRequest.setCreated(LocalDateTime.now());
-        return toItemRequestDto(itemRequestJpaRepository.save(itemRequest), new ArrayList<>());
+        ItemRequest saved = itemRequestJpaRepository.save(itemRequest);
+        return RequestProfile.mapping(() -> toItemRequestDto(saved, new ArrayList<>()));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> getItemRequestDtos(Long requestor) throws UserNotFoundException {
-        User user = userJpaRepository.findById(requestor).orElseThrow(() -> new UserNotFoundException("Пользователя не существует"));
-        List<ItemRequestDto> requests = itemRequestJpaRepository.findAll()
-                .stream()
-                .filter(x -> x.getRequestor().equals(user))
-                .map(x -> toItemRequestDto(x, itemJpaRepository.findItemsByRequestId(x.getId())))
+        List<ItemRequestView> requests = itemRequestJpaRepository.findViewsByRequestorId(requestor);
+        if (requests.isEmpty() && userJpaRepository.findViewById(requestor).isEmpty()) {
+            throw UserNotFoundException.NOT_EXISTS;
+        }
+        return toItemRequestDtos(requests);
+    }
+
+    /**
+     * Maps the requests together with their responses, which are read with one query for the whole list.
+     */
+    private List<ItemRequestDto> toItemRequestDtos(List<ItemRequestView> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequestView::getId)
                 .collect(Collectors.toList());
-        return requests;
+        List<ItemView> responses = itemJpaRepository.findViewsByRequestIdIn(requestIds);
+        return RequestProfile.mapping(() -> {
+            Map<Long, List<ItemDto>> items = responses.stream()
+                    .collect(Collectors.groupingBy(ItemView::getRequestId,
+                            Collectors.mapping(x -> toItemDto(x), Collectors.toList())));
+            return requests.stream()
+                    .map(x -> toItemRequestDto(x, items.getOrDefault(x.getId(), List.of())))
+                    .collect(Collectors.toList());
+        });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<ItemRequestDto> getAllItemRequestDtos(Long requestor, Integer from, Integer size) throws UserNotFoundException, PaginationNotCorrectException {
-        User user = userJpaRepository.findById(requestor).orElseThrow(() -> new UserNotFoundException("Пользователя не существует"));
-        List<ItemRequestDto> requests;
-
+        if (userJpaRepository.findViewById(requestor).isEmpty()) {
+            throw UserNotFoundException.NOT_EXISTS;
+        }
         if (!validatePagination(from, size)) {
             throw new PaginationNotCorrectException("Неверно заданы параметры вывода страниц");
         }
-        Sort sortByCreated = Sort.by(Sort.Direction.DESC, "created");
-        Pageable page = new MyPageable(from, size, sortByCreated);
-        Page<ItemRequest> requestPage = itemRequestJpaRepository.findAll(page);
-        requests = requestPage.getContent()
-                .stream()
-                .filter(x -> !x.getRequestor().equals(user))
-                .map(x -> toItemRequestDto(x, itemJpaRepository.findItemsByRequestId(x.getId())))
-                .collect(Collectors.toList());
+        Pageable page = new MyPageable(from, size, Sort.unsorted());
+        return toItemRequestDtos(itemRequestJpaRepository.seekOtherUsersRequests(requestor, PageCursor.LATEST, Long.MAX_VALUE, page));
+    }
 
-        return requests;
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getAllItemRequestDtosAfter(Long requestor, String cursor, Integer size) throws UserNotFoundException, PaginationNotCorrectException {
+        if (userJpaRepository.findViewById(requestor).isEmpty()) {
+            throw UserNotFoundException.NOT_EXISTS;
+        }
+        if (!validatePagination(0, size)) {
+            throw new PaginationNotCorrectException("Неверно заданы параметры вывода страниц");
+        }
+        PageCursor position = PageCursor.decode(cursor);
+        Pageable page = new MyPageable(0, size, Sort.unsorted());
+        return toItemRequestDtos(itemRequestJpaRepository.seekOtherUsersRequests(requestor, position.getPositionOrLatest(), position.getId(), page));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ItemRequestDto getItemRequestById(Long requestor, Long requestId) throws RequestNotFoundException, UserNotFoundException {
-        if (userJpaRepository.findById(requestor).isEmpty()) {
-            throw new UserNotFoundException("Пользователя не существует");
+        if (userJpaRepository.findViewById(requestor).isEmpty()) {
+            throw UserNotFoundException.NOT_EXISTS;
         }
-        ItemRequest itemRequest = itemRequestJpaRepository.findById(requestId).orElseThrow(() -> new RequestNotFoundException("Запроса не существует"));
-        ItemRequestDto requestDto = toItemRequestDto(itemRequest, itemJpaRepository.findItemsByRequestId(requestId));
+        ItemRequest itemRequest = itemRequestJpaRepository.findById(requestId).orElseThrow(() -> RequestNotFoundException.NOT_EXISTS);
+        List<Item> items = itemJpaRepository.findItemsByRequestId(requestId);
+        ItemRequestDto requestDto = RequestProfile.mapping(() -> toItemRequestDto(itemRequest, items));
         return requestDto;
 
     }
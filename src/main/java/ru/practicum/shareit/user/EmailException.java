@@ -1,8 +1,11 @@
 package ru.practicum.shareit.user;
 
-public class EmailException extends Exception {
+import ru.practicum.shareit.utils.ErrorCode;
+import ru.practicum.shareit.utils.ShareItException;
+
+public class EmailException extends ShareItException {
 
     public EmailException(String message) {
-        super(message);
+        super(ErrorCode.INVALID_EMAIL, message);
     }
 }
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.user;
 
-public class IncorrectOwnerException extends Exception {
+import ru.practicum.shareit.utils.ErrorCode;
+import ru.practicum.shareit.utils.ShareItException;
+
+public class IncorrectOwnerException extends ShareItException {
 
     public IncorrectOwnerException(String message) {
-        super(message);
+        super(ErrorCode.INCORRECT_OWNER, message);
     }
 }
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.user;
 
-public class UserAlreadyExistsException extends Exception {
+import ru.practicum.shareit.utils.ErrorCode;
+import ru.practicum.shareit.utils.ShareItException;
+
+public class UserAlreadyExistsException extends ShareItException {
 
     public UserAlreadyExistsException(String message) {
-        super(message);
+        super(ErrorCode.USER_ALREADY_EXISTS, message);
     }
 }
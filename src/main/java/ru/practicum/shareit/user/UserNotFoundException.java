@@ -1,8 +1,12 @@
 package ru.practicum.shareit.user;
 
-public class UserNotFoundException extends Exception {
+import ru.practicum.shareit.utils.ErrorCode;
+import ru.practicum.shareit.utils.ShareItException;
+
+public class UserNotFoundException extends ShareItException {
+    public static final UserNotFoundException NOT_EXISTS = new UserNotFoundException("Пользователя не существует");
 
     public UserNotFoundException(String message) {
-        super(message);
+        super(ErrorCode.USER_NOT_FOUND, message);
     }
 }
@@ -1,9 +1,12 @@
 package ru.practicum.shareit.user;
 
-public class ValidationException extends Exception {
+import ru.practicum.shareit.utils.ErrorCode;
+import ru.practicum.shareit.utils.ShareItException;
+
+public class ValidationException extends ShareItException {
 
     public ValidationException(String message) {
-        super(message);
+        super(ErrorCode.VALIDATION_FAILED, message);
     }
 
 }
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.user.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.EmailException;
 import ru.practicum.shareit.user.UserAlreadyExistsException;
@@ -8,8 +10,13 @@ import ru.practicum.shareit.user.UserNotFoundException;
 import ru.practicum.shareit.user.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.JsonBatchStreamer;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 
@@ -17,10 +24,12 @@ import java.util.List;
 @RequestMapping(path = "/users")
 public class UserController {
     private final UserService userService;
+    private final JsonBatchStreamer batchStreamer;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.batchStreamer = new JsonBatchStreamer(objectMapper);
     }
 
     @PostMapping
@@ -28,6 +37,13 @@ public class UserController {
         return userService.addUser(user);
     }
 
+    @PostMapping("/batch")
+    public void addUsers(HttpServletRequest request, HttpServletResponse response) throws IOException, ValidationException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        batchStreamer.stream(request.getInputStream(), response.getOutputStream(), UserDto.class, userService::addUsers);
+    }
+
     @PatchMapping("/{id}")
     public UserDto updateUser(@RequestBody @Valid UserDto user, @PathVariable Long id) throws UserNotFoundException, ValidationException, EmailException, UserAlreadyExistsException {
         return userService.updateUser(user, id);
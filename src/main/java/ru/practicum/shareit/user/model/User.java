@@ -3,6 +3,9 @@ package ru.practicum.shareit.user.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import javax.validation.constraints.Email;
@@ -10,6 +13,7 @@ import java.util.Objects;
 
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "users")
 @Data
 @AllArgsConstructor
@@ -17,7 +21,8 @@ import java.util.Objects;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     @Column(name = "user_name")
     private String name;
@@ -25,16 +30,19 @@ public class User {
     @Email
     private String email;
 
+    /**
+     * Equal by id; a lazy proxy equals the loaded user, so the id is read through getId().
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
         User user = (User) o;
-        return id.equals(user.id) || email.equals(user.email) || name.equals(user.name);
+        return getId() != null && getId().equals(user.getId());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, email);
+        return Objects.hashCode(getId());
     }
 }
@@ -1,10 +1,29 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface UserJpaRepository extends JpaRepository<User, Long> {
+    String CACHE = "users";
+
+    /**
+     * Cached: nearly every request checks that the X-Sharer-User-Id user exists. The cache holds read-only
+     * projections; user entities come from the second-level cache, which gives every session its own instance.
+     */
+    @Cacheable(cacheNames = CACHE, unless = "#result == null")
+    @Query("select u.id as id, u.name as name, u.email as email from User u where u.id = :id")
+    Optional<UserView> findViewById(@Param("id") Long id);
+
     User findByEmail(String email);
+
+    List<User> findByEmailIn(Collection<String> emails);
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.user.repository;
+
+/**
+ * User columns of a user card. Projection rows are read-only, so a cached row can be shared between requests.
+ */
+public interface UserView {
+    Long getId();
+
+    String getName();
+
+    String getEmail();
+}
@@ -5,6 +5,7 @@ import ru.practicum.shareit.user.UserAlreadyExistsException;
 import ru.practicum.shareit.user.UserNotFoundException;
 import ru.practicum.shareit.user.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.utils.BatchResultDto;
 
 import java.util.List;
 
@@ -13,6 +14,8 @@ public interface UserService {
 
     UserDto addUser(UserDto user) throws UserAlreadyExistsException, ValidationException, UserNotFoundException, EmailException;
 
+    List<BatchResultDto> addUsers(List<UserDto> users);
+
     UserDto updateUser(UserDto user, Long id) throws UserNotFoundException, ValidationException, EmailException, UserAlreadyExistsException;
 
     List<UserDto> getAllUsers();
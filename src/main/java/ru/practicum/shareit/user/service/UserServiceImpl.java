@@ -1,8 +1,13 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.monitoring.RequestProfile;
 import ru.practicum.shareit.user.EmailException;
 import ru.practicum.shareit.user.UserAlreadyExistsException;
 import ru.practicum.shareit.user.UserNotFoundException;
@@ -10,8 +15,15 @@ import ru.practicum.shareit.user.ValidationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserJpaRepository;
+import ru.practicum.shareit.user.repository.UserView;
+import ru.practicum.shareit.utils.AfterCommit;
+import ru.practicum.shareit.utils.BatchResultDto;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.user.UserMapper.fromUserDto;
@@ -19,27 +31,79 @@ import static ru.practicum.shareit.user.UserMapper.toUserDto;
 import static ru.practicum.shareit.user.dto.UserDto.validateMail;
 
 @Service
+@Timed("shareit.service")
 @Slf4j
 public class UserServiceImpl implements UserService {
 
     private final UserJpaRepository userRepository;
+    private final CacheManager cacheManager;
 
     @Autowired
-    public UserServiceImpl(UserJpaRepository userRepository) {
+    public UserServiceImpl(UserJpaRepository userRepository, CacheManager cacheManager) {
         this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
     }
 
     public UserDto addUser(UserDto userDto) throws ValidationException, EmailException {
-        User user = fromUserDto(userDto);
+        User user = RequestProfile.mapping(() -> fromUserDto(userDto));
         if (!UserDto.validate(userDto)) {
             log.error("валидация пользователя не пройдена");
             throw new ValidationException("данные о пользователе указаны некорректно");
         } else if (validateMail(userDto)) {
             throw new EmailException("некорректный Email");
         }
-        return toUserDto(userRepository.save(user));
+        User saved = userRepository.save(user);
+        return RequestProfile.mapping(() -> toUserDto(saved));
     }
 
+    public List<BatchResultDto> addUsers(List<UserDto> users) {
+        Set<String> emails = users.stream()
+                .filter(Objects::nonNull)
+                .map(UserDto::getEmail)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> taken = new HashSet<>();
+        if (!emails.isEmpty()) {
+            userRepository.findByEmailIn(emails).forEach(x -> taken.add(x.getEmail()));
+        }
+        List<BatchResultDto> results = new ArrayList<>(users.size());
+        List<User> pending = new ArrayList<>(users.size());
+        List<BatchResultDto> pendingResults = new ArrayList<>(users.size());
+        for (UserDto userDto : users) {
+            if (userDto == null || !UserDto.validate(userDto)) {
+                results.add(BatchResultDto.failed("данные о пользователе указаны некорректно"));
+            } else if (validateMail(userDto)) {
+                results.add(BatchResultDto.failed("некорректный Email"));
+            } else if (!taken.add(userDto.getEmail())) {
+                results.add(BatchResultDto.failed("пользователь с таким Email уже существует"));
+            } else {
+                BatchResultDto result = new BatchResultDto();
+                pending.add(new User(null, userDto.getName(), userDto.getEmail()));
+                pendingResults.add(result);
+                results.add(result);
+            }
+        }
+        try {
+            List<User> saved = userRepository.saveAll(pending);
+            for (int i = 0; i < saved.size(); i++) {
+                pendingResults.get(i).setId(saved.get(i).getId());
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.warn("пакетное сохранение пользователей не удалось, сохраняем по одному: {}", e.getMessage());
+            for (int i = 0; i < pending.size(); i++) {
+                User user = pending.get(i);
+                user.setId(null);
+                try {
+                    pendingResults.get(i).setId(userRepository.save(user).getId());
+                } catch (DataIntegrityViolationException duplicate) {
+                    pendingResults.get(i).setError("пользователь с таким Email уже существует");
+                }
+            }
+        }
+        return results;
+    }
+
+    @Transactional
     public UserDto updateUser(UserDto userDto, Long id) throws UserNotFoundException, EmailException, UserAlreadyExistsException {
         User user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException("такого пользователя не существует"));
         if (userDto.getEmail() != null &&
@@ -56,24 +120,30 @@ public class UserServiceImpl implements UserService {
         if (userDto.getName() != null) {
             user.setName(userDto.getName());
         }
-        return toUserDto(userRepository.save(user));
+        User updated = userRepository.save(user);
+        AfterCommit.evict(cacheManager, UserJpaRepository.CACHE, id);
+        return RequestProfile.mapping(() -> toUserDto(updated));
     }
 
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
+        List<User> users = userRepository.findAll();
+        return RequestProfile.mapping(() -> users.stream()
                 .map(x -> toUserDto(x))
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long id) throws UserNotFoundException {
-        User user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException("пользователь с id " + id + " не существует"));
-        return toUserDto(user);
+        UserView user = userRepository.findViewById(id).orElseThrow(() -> new UserNotFoundException("пользователь с id " + id + " не существует"));
+        return new UserDto(user.getId(), user.getName(), user.getEmail());
     }
 
+    @Transactional
     public UserDto deleteUser(Long id) throws UserNotFoundException {
         User user = userRepository.findById(id).orElseThrow(() -> new UserNotFoundException("пользователь с id " + id + " не существует"));
         userRepository.delete(user);
-        return toUserDto(user);
+        AfterCommit.evict(cacheManager, UserJpaRepository.CACHE, id);
+        return RequestProfile.mapping(() -> toUserDto(user));
     }
 }
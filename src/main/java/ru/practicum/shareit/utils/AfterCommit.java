@@ -0,0 +1,37 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Work that may only see committed data: within a transaction it runs once the transaction has committed and is
+ * dropped on rollback, outside one it runs at once.
+ */
+public class AfterCommit {
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Evicting before the commit would let a concurrent read cache the old row again until the entry expires.
+     */
+    public static void evict(CacheManager cacheManager, String cacheName, Object key) {
+        run(() -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.evict(key);
+            }
+        });
+    }
+}
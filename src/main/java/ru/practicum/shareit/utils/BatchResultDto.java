@@ -0,0 +1,18 @@
+package ru.practicum.shareit.utils;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchResultDto {
+    private Integer index;
+    private Long id;
+    private String error;
+
+    public static BatchResultDto failed(String error) {
+        return new BatchResultDto(null, null, error);
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Machine-readable error codes with the HTTP status and error title they are reported with; every code has its own title.
+ */
+public enum ErrorCode {
+    VALIDATION_FAILED(HttpStatus.BAD_REQUEST, "Ошибка валидации"),
+    INVALID_PARAMETERS(HttpStatus.BAD_REQUEST, "Параметры запроса невалидны"),
+    INVALID_EMAIL(HttpStatus.BAD_REQUEST, "Некорректный Email"),
+    USER_NOT_FOUND(HttpStatus.NOT_FOUND, "Пользователь не найден"),
+    USER_ALREADY_EXISTS(HttpStatus.CONFLICT, "Пользователь уже существует"),
+    INCORRECT_OWNER(HttpStatus.NOT_FOUND, "Данная вещь принадлежит другому владельцу"),
+    ITEM_NOT_FOUND(HttpStatus.NOT_FOUND, "Запрашиваемой вещи не существует"),
+    ITEM_NOT_AVAILABLE(HttpStatus.BAD_REQUEST, "Запрашиваемая вещь недоступна"),
+    INCORRECT_BOOKING(HttpStatus.BAD_REQUEST, "Некорректное бронирование"),
+    UNKNOWN_STATE(HttpStatus.BAD_REQUEST, "Unknown state: UNSUPPORTED_STATUS"),
+    BOOKING_NOT_FOUND(HttpStatus.NOT_FOUND, "Бронирование не найдено"),
+    BOOKING_CONFLICT(HttpStatus.CONFLICT, "Время бронирования пересекается с другим бронированием"),
+    REQUEST_NOT_FOUND(HttpStatus.NOT_FOUND, "Запрос не найден"),
+    INCORRECT_REQUEST(HttpStatus.BAD_REQUEST, "Некорректный запрос вещи"),
+    INCORRECT_COMMENT(HttpStatus.BAD_REQUEST, "Проблема с комментарием"),
+    INCORRECT_PAGINATION(HttpStatus.BAD_REQUEST, "Некорректные параметры постраничного вывода"),
+    INTERNAL_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "Произошла непредвиденная ошибка.");
+
+    private final HttpStatus status;
+    private final String error;
+
+    ErrorCode(HttpStatus status, String error) {
+        this.status = status;
+        this.error = error;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -1,120 +1,56 @@
 package ru.practicum.shareit.utils;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
-import ru.practicum.shareit.booking.BookingNotFoundException;
-import ru.practicum.shareit.booking.IncorrectBookingException;
-import ru.practicum.shareit.booking.IncorrectBookingStatusException;
 import ru.practicum.shareit.booking.controller.BookingController;
-import ru.practicum.shareit.item.IncorrectCommentException;
-import ru.practicum.shareit.item.ItemNotAvailableException;
-import ru.practicum.shareit.item.ItemNotFoundException;
-import ru.practicum.shareit.item.RequestNotCorrectException;
 import ru.practicum.shareit.item.controller.ItemController;
-import ru.practicum.shareit.requests.RequestNotFoundException;
 import ru.practicum.shareit.requests.controller.ItemRequestController;
-import ru.practicum.shareit.user.*;
 import ru.practicum.shareit.user.controller.UserController;
 
 @RestControllerAdvice(assignableTypes = {ItemController.class, UserController.class, BookingController.class, ItemRequestController.class})
 public class ErrorHandler {
+    private final MeterRegistry meterRegistry;
 
-    @ExceptionHandler
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ErrorResponse handle(final ValidationException e) {
-        return new ErrorResponse("Ошибка валидации", e.getMessage());
+    /**
+     * Falls back to the global registry, which records nothing unless a registry is added to it,
+     * where metrics are not configured (controller slice tests).
+     */
+    public ErrorHandler(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
     }
 
+    /**
+     * Every domain exception: the status and the error title come from its code, the description from its message.
+     */
     @ExceptionHandler
-    @ResponseStatus(HttpStatus.NOT_FOUND)
-    public ErrorResponse handle(final UserNotFoundException e) {
-        return new ErrorResponse("Пользователь не найден", e.getMessage());
-    }
-
-    @ExceptionHandler
-    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
-    public ErrorResponse handle(final Throwable e) {
-        return new ErrorResponse("Произошла непредвиденная ошибка.", e.getMessage());
-    }
-
-    @ExceptionHandler
-    @ResponseStatus(HttpStatus.CONFLICT)
-    public ErrorResponse handle(final UserAlreadyExistsException e) {
-        return new ErrorResponse("Пользователь уже существует", e.getMessage());
+    public ResponseEntity<ErrorResponse> handle(final ShareItException e) {
+        return ResponseEntity.status(e.getCode().getStatus()).body(error(e, e.getCode()));
     }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ErrorResponse handle(final EmailException e) {
-        return new ErrorResponse("Некорректный Email", e.getMessage());
-    }
-
-    @ExceptionHandler
-    @ResponseStatus(HttpStatus.NOT_FOUND)
-    public ErrorResponse handle(final IncorrectOwnerException e) {
-        return new ErrorResponse("Данная вещь принадлежит другому владельцу", e.getMessage());
-    }
-
-    @ExceptionHandler
-    @ResponseStatus(HttpStatus.NOT_FOUND)
-    public ErrorResponse handle(final ItemNotFoundException e) {
-        return new ErrorResponse("Запрашиваемой вещи не существует", e.getMessage());
-    }
-
-    @ExceptionHandler
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ErrorResponse handle(final ItemNotAvailableException e) {
-        return new ErrorResponse("Запрашиваемая вещь недоступна", e.getMessage());
-    }
-
-    @ExceptionHandler
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ErrorResponse handle(final IncorrectBookingException e) {
-        return new ErrorResponse("Запрашиваемая вещь недоступна", e.getMessage());
-    }
-
-    @ExceptionHandler
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ErrorResponse handle(final IncorrectBookingStatusException e) {
-        return new ErrorResponse("Unknown state: UNSUPPORTED_STATUS", e.getMessage());
-    }
-
-    @ExceptionHandler
-    @ResponseStatus(HttpStatus.NOT_FOUND)
-    public ErrorResponse handle(final BookingNotFoundException e) {
-        return new ErrorResponse("Бронирование не найдено", e.getMessage());
-    }
-
-    @ExceptionHandler
-    @ResponseStatus(HttpStatus.NOT_FOUND)
-    public ErrorResponse handle(final RequestNotFoundException e) {
-        return new ErrorResponse("Запрос не найден", e.getMessage());
-    }
-
-    @ExceptionHandler
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ErrorResponse handle(final IncorrectCommentException e) {
-        return new ErrorResponse("Проблема с комментарием", e.getMessage());
-    }
-
-    @ExceptionHandler
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ErrorResponse handle(final RequestNotCorrectException e) {
-        return new ErrorResponse("Проблема с запросом", e.getMessage());
+    public ErrorResponse handle(final MethodArgumentNotValidException e) {
+        return error(e, ErrorCode.INVALID_PARAMETERS);
     }
 
     @ExceptionHandler
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ErrorResponse handle(final PaginationNotCorrectException e) {
-        return new ErrorResponse("Проблема с запросом", e.getMessage());
+    @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
+    public ErrorResponse handle(final Throwable e) {
+        return error(e, ErrorCode.INTERNAL_ERROR);
     }
 
-    @ExceptionHandler
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ErrorResponse handle(final MethodArgumentNotValidException e) {
-        return new ErrorResponse("Параметры запроса невалидны", e.getMessage());
+    /**
+     * Counts the exception in shareit.errors, tagged by its class and code, and builds the response body.
+     */
+    private ErrorResponse error(Throwable e, ErrorCode code) {
+        meterRegistry.counter("shareit.errors", "exception", e.getClass().getSimpleName(), "code", code.name()).increment();
+        return new ErrorResponse(code.name(), code.getError(), e.getMessage());
     }
 }
@@ -1,14 +1,20 @@
 package ru.practicum.shareit.utils;
 
 public class ErrorResponse {
+    private String code;
     private String error;
     private String description;
 
-    public ErrorResponse(String error, String description) {
+    public ErrorResponse(String code, String error, String description) {
+        this.code = code;
         this.error = error;
         this.description = description;
     }
 
+    public String getCode() {
+        return code;
+    }
+
     public String getError() {
         return error;
     }
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.user.ValidationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads a JSON array element by element and hands it to a handler in chunks, writing the per-row results
+ * back as a JSON array while the request is still being read. Only one chunk is held in memory at a time.
+ * Elements that are not objects reach the handler as null; objects that do not bind to the row type, such as
+ * a string where a number is expected, get an error row of their own and the import goes on. A syntax error
+ * ends the import with an error row; chunks handled before it stay saved. If the handler fails once results
+ * have been written, a last error row closes the array, so the client still receives valid JSON.
+ */
+@Slf4j
+public class JsonBatchStreamer {
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private final ObjectMapper mapper;
+    private final int chunkSize;
+
+    public JsonBatchStreamer(ObjectMapper mapper) {
+        this(mapper, DEFAULT_CHUNK_SIZE);
+    }
+
+    public JsonBatchStreamer(ObjectMapper mapper, int chunkSize) {
+        this.mapper = mapper;
+        this.chunkSize = chunkSize;
+    }
+
+    @FunctionalInterface
+    public interface ChunkHandler<T, E extends Exception> {
+        List<BatchResultDto> handle(List<T> chunk) throws E;
+    }
+
+    public <T, E extends Exception> void stream(InputStream in, OutputStream out, Class<T> type,
+                                                ChunkHandler<T, E> handler) throws E, IOException, ValidationException {
+        try (JsonParser parser = mapper.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ValidationException("Ожидается JSON-массив");
+            }
+            JsonGenerator generator = null;
+            int index = 0;
+            boolean finished = false;
+            while (!finished) {
+                List<T> chunk = new ArrayList<>(chunkSize);
+                List<String> rowErrors = new ArrayList<>(chunkSize);
+                String syntaxError = null;
+                try {
+                    while (rowErrors.size() < chunkSize) {
+                        JsonToken token = parser.nextToken();
+                        if (token == JsonToken.END_ARRAY || token == null) {
+                            finished = true;
+                            break;
+                        }
+                        if (token == JsonToken.START_OBJECT) {
+                            JsonNode row = mapper.readTree(parser);
+                            try {
+                                chunk.add(mapper.treeToValue(row, type));
+                                rowErrors.add(null);
+                            } catch (JsonProcessingException e) {
+                                rowErrors.add("Некорректные данные: " + e.getOriginalMessage());
+                            }
+                        } else {
+                            parser.skipChildren();
+                            chunk.add(null);
+                            rowErrors.add(null);
+                        }
+                    }
+                } catch (JsonParseException e) {
+                    syntaxError = "Некорректный JSON: " + e.getOriginalMessage();
+                    finished = true;
+                }
+                List<BatchResultDto> results;
+                try {
+                    results = chunk.isEmpty() ? List.of() : handler.handle(chunk);
+                } catch (Exception e) {
+                    if (generator == null) {
+                        throw e;
+                    }
+                    log.error("пакетный импорт прерван после {} строк", index, e);
+                    String reason = e instanceof ShareItException ? e.getMessage() : "внутренняя ошибка";
+                    generator.writeObject(new BatchResultDto(index, null, "Импорт прерван: " + reason));
+                    break;
+                }
+                if (generator == null) {
+                    generator = mapper.createGenerator(out);
+                    generator.writeStartArray();
+                }
+                Iterator<BatchResultDto> handled = results.iterator();
+                for (String rowError : rowErrors) {
+                    BatchResultDto result = rowError == null ? handled.next() : BatchResultDto.failed(rowError);
+                    result.setIndex(index++);
+                    generator.writeObject(result);
+                }
+                if (syntaxError != null) {
+                    generator.writeObject(new BatchResultDto(index, null, syntaxError));
+                }
+                generator.flush();
+            }
+            generator.writeEndArray();
+            generator.flush();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.utils;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Position of the last row of a page: the sort key (booking start, request creation time or none) and the id.
+ * The next page is read with a seek on (key, id) instead of an offset, so every page costs the same.
+ * Clients get it as an opaque string in the {@link #HEADER} response header.
+ */
+@Getter
+public class PageCursor {
+    public static final String HEADER = "X-Next-Cursor";
+    public static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime position;
+    private final long id;
+
+    public PageCursor(LocalDateTime position, long id) {
+        this.position = position;
+        this.id = id;
+    }
+
+    public LocalDateTime getPositionOrLatest() {
+        return position == null ? LATEST : position;
+    }
+
+    public String encode() {
+        String raw = (position == null ? "" : position.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) throws PaginationNotCorrectException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new PaginationNotCorrectException("Некорректный курсор постраничного вывода");
+            }
+            String position = raw.substring(0, separator);
+            return new PageCursor(position.isEmpty() ? null : LocalDateTime.parse(position),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new PaginationNotCorrectException("Некорректный курсор постраничного вывода");
+        }
+    }
+
+    /**
+     * Cursor pointing after the last element of a full page, or null when the page is the last one.
+     */
+    public static <T> String next(List<T> page, Integer size, Function<T, PageCursor> key) {
+        if (page.isEmpty() || page.size() < size) {
+            return null;
+        }
+        return key.apply(page.get(page.size() - 1)).encode();
+    }
+}
@@ -1,8 +1,8 @@
 package ru.practicum.shareit.utils;
 
-public class PaginationNotCorrectException extends Exception {
+public class PaginationNotCorrectException extends ShareItException {
 
     public PaginationNotCorrectException(String message) {
-        super(message);
+        super(ErrorCode.INCORRECT_PAGINATION, message);
     }
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.utils;
+
+/**
+ * Base of the domain exceptions. They report routine bad input, so they are created without a stack trace
+ * or suppressed exceptions: filling in the trace through the MVC, AOP and filter frames cost far more than
+ * the rest of a 404 response. The message is the client-facing description; the code decides the status.
+ * Without a trace, suppressed exceptions or a cause to set, an instance holds no per-request state, so the
+ * not-found exceptions whose message names no id are thrown as shared constants.
+ */
+public abstract class ShareItException extends Exception {
+    private final ErrorCode code;
+
+    protected ShareItException(ErrorCode code, String message) {
+        super(message, null, false, false);
+        this.code = code;
+    }
+
+    public ErrorCode getCode() {
+        return code;
+    }
+}
@@ -1,9 +1,11 @@
-DROP TABLE IF EXISTS USERS, ITEMS, BOOKING, BOOKING_STATUS, REQUESTS, COMMENTS,
-    booking_booker, booking_item, comments_author, comments_items, item_owner, item_request,
-    request_user, status;
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS booking_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     user_name VARCHAR(255) NOT NULL,
     email VARCHAR(512) NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (id),
@@ -11,7 +13,7 @@ CREATE TABLE IF NOT EXISTS users (
     );
 
 CREATE TABLE IF NOT EXISTS requests (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     description VARCHAR(512),
     created timestamp,
     requestor_id BIGINT REFERENCES users (id),
@@ -19,7 +21,7 @@ CREATE TABLE IF NOT EXISTS requests (
 );
 
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     item_name VARCHAR(255) NOT NULL,
     description VARCHAR(512),
     available BOOLEAN,
@@ -35,19 +37,20 @@ CREATE TABLE IF NOT EXISTS booking_status (
 );
 
 CREATE TABLE IF NOT EXISTS booking (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     booking_start timestamp,
     booking_end timestamp,
     item_id BIGINT REFERENCES items (id),
     booker_id BIGINT REFERENCES users (id),
     status varchar(10),
+    version BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT pk_booking PRIMARY KEY (id)
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     comment_text VARCHAR(512),
     item_id BIGINT REFERENCES items (id),
     author_id BIGINT REFERENCES users (id),
     CONSTRAINT pk_comments PRIMARY KEY (id)
-);
\ No newline at end of file
+);
@@ -0,0 +1,19 @@
+-- items of an owner and responses to requests
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+-- bookings of an item: last/next booking, overlap check, active bookings by status
+CREATE INDEX IF NOT EXISTS idx_booking_item_period ON booking (item_id, booking_start, booking_end);
+
+CREATE INDEX IF NOT EXISTS idx_booking_item_status_start ON booking (item_id, status, booking_start);
+
+-- bookings of a booker ordered by start, also used by the cursor seek
+CREATE INDEX IF NOT EXISTS idx_booking_booker_start ON booking (booker_id, booking_start, id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+
+-- own requests of a user and the feed of all requests
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created);
+
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created, id);
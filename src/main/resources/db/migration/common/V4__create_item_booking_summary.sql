@@ -0,0 +1,22 @@
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+    item_id BIGINT NOT NULL REFERENCES items (id),
+    last_booking_id BIGINT,
+    last_booker_id BIGINT,
+    last_start timestamp,
+    last_end timestamp,
+    last_status varchar(10),
+    next_booking_id BIGINT,
+    next_booker_id BIGINT,
+    next_start timestamp,
+    next_end timestamp,
+    next_status varchar(10),
+    valid_until timestamp,
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_summary_valid_until ON item_booking_summary (valid_until);
+
+-- existing items start outdated, so the sweep computes their summaries
+INSERT INTO item_booking_summary (item_id, valid_until)
+SELECT id, TIMESTAMP '1970-01-01 00:00:00' FROM items;
@@ -0,0 +1,15 @@
+-- a database created by the former schema.sql is baselined at version 0 and upgraded here:
+-- ids come from the pooled sequences instead of IDENTITY, bookings get the optimistic lock version
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE booking ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+
+SELECT setval('users_seq', COALESCE((SELECT max(id) FROM users), 0) + 1, false);
+SELECT setval('requests_seq', COALESCE((SELECT max(id) FROM requests), 0) + 1, false);
+SELECT setval('items_seq', COALESCE((SELECT max(id) FROM items), 0) + 1, false);
+SELECT setval('booking_seq', COALESCE((SELECT max(id) FROM booking), 0) + 1, false);
+SELECT setval('comments_seq', COALESCE((SELECT max(id) FROM comments), 0) + 1, false);
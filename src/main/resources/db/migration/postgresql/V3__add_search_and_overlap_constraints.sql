@@ -0,0 +1,39 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (lower(item_name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (lower(description) gin_trgm_ops);
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE booking DROP CONSTRAINT IF EXISTS booking_no_overlap;
+
+-- Bookings saved before overlaps were refused may collide. Of every overlapping pair of active bookings of an item
+-- the lower ranked one is rejected: an approved booking outranks a waiting one, otherwise the earlier start wins.
+-- The pairs are taken from the rows as they were before the update, so no overlap is left for the constraint.
+UPDATE booking b
+SET status = 'REJECTED'
+WHERE b.status IN ('WAITING', 'APPROVED')
+  AND EXISTS (SELECT 1
+              FROM booking o
+              WHERE o.item_id = b.item_id
+                AND o.id <> b.id
+                AND o.status IN ('WAITING', 'APPROVED')
+                AND o.booking_start < b.booking_end
+                AND b.booking_start < o.booking_end
+                AND ((o.status = 'APPROVED' AND b.status = 'WAITING')
+                    OR (o.status = b.status AND (o.booking_start, o.id) < (b.booking_start, b.id))));
+
+ALTER TABLE booking ADD CONSTRAINT booking_no_overlap
+    EXCLUDE USING gist (item_id WITH =, tsrange(booking_start, booking_end) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT nextval('requests_seq');
+
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+
+ALTER TABLE booking ALTER COLUMN id SET DEFAULT nextval('booking_seq');
+
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
@@ -0,0 +1,8 @@
+-- the search folds ё to е (ItemJpaRepository.searchAvailable), the trigram indexes have to follow the expression
+DROP INDEX IF EXISTS idx_items_name_trgm;
+
+DROP INDEX IF EXISTS idx_items_description_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING gin (translate(lower(item_name), 'ё', 'е') gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING gin (translate(lower(description), 'ё', 'е') gin_trgm_ops);
@@ -0,0 +1,149 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemJpaRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.IncorrectOwnerException;
+import ru.practicum.shareit.user.UserNotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJpaRepository;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.QueryCounter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class EntityCacheTest {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserJpaRepository userRepository;
+    @Autowired
+    private ItemJpaRepository itemRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void beforeEach() {
+        long n = SEQUENCE.incrementAndGet();
+        owner = userRepository.save(new User(null, "owner" + n, "owner" + n + "@cache.test"));
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Дрель аккумуляторная");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+    }
+
+    @Test
+    void repeatedUserLookupsAreServedFromCache() throws Throwable {
+        double hits = cacheGets(UserJpaRepository.CACHE, "hit");
+        userService.getUserById(owner.getId());
+
+        assertEquals(0, QueryCounter.count(() -> userService.getUserById(owner.getId())));
+        assertEquals(hits + 1, cacheGets(UserJpaRepository.CACHE, "hit"));
+    }
+
+    @Test
+    void updateUserEvictsCachedUser() throws Exception {
+        userService.getUserById(owner.getId());
+
+        userService.updateUser(new UserDto(null, "новое имя", null), owner.getId());
+
+        assertEquals("новое имя", userService.getUserById(owner.getId()).getName());
+    }
+
+    @Test
+    void deleteUserEvictsCachedUser() throws Exception {
+        User user = userRepository.save(new User(null, "removed", "removed" + SEQUENCE.incrementAndGet() + "@cache.test"));
+        userService.getUserById(user.getId());
+
+        userService.deleteUser(user.getId());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(user.getId()));
+    }
+
+    @Test
+    void updateItemEvictsCachedItem() throws Throwable {
+        itemRepository.findViewById(item.getId());
+        assertEquals(0, QueryCounter.count(() -> itemRepository.findViewById(item.getId())));
+
+        itemService.updateItem(item.getId(), owner.getId(), new ItemDto("Перфоратор", null, null, null, null));
+
+        assertEquals("Перфоратор", itemRepository.findViewById(item.getId()).orElseThrow().getName());
+        assertEquals("Перфоратор", itemService.getItem(item.getId(), owner.getId()).getName());
+    }
+
+    @Test
+    void failedUpdateLeavesCachedItemIntact() throws Exception {
+        User stranger = userRepository.save(new User(null, "stranger", "stranger" + SEQUENCE.incrementAndGet() + "@cache.test"));
+        itemRepository.findViewById(item.getId());
+
+        assertThrows(IncorrectOwnerException.class, () -> itemService.updateItem(item.getId(), stranger.getId(),
+                new ItemDto("Перфоратор", null, null, null, null)));
+
+        assertEquals("Дрель", itemRepository.findViewById(item.getId()).orElseThrow().getName());
+        assertEquals("Дрель", itemService.getItem(item.getId(), owner.getId()).getName());
+    }
+
+    @Test
+    void itemIsEvictedOnlyAfterCommit() {
+        Cache cache = cacheManager.getCache(ItemJpaRepository.CACHE);
+        itemRepository.findViewById(item.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertDoesNotThrow(() -> itemService.updateItem(item.getId(), owner.getId(),
+                    new ItemDto("Перфоратор", null, null, null, null)));
+            assertNotNull(cache.get(item.getId()));
+        });
+
+        assertNull(cache.get(item.getId()));
+        assertEquals("Перфоратор", itemRepository.findViewById(item.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void rolledBackUserUpdateKeepsCachedUser() throws Exception {
+        Cache cache = cacheManager.getCache(UserJpaRepository.CACHE);
+        userRepository.findViewById(owner.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertDoesNotThrow(() -> userService.updateUser(new UserDto(null, "новое имя", null), owner.getId()));
+            status.setRollbackOnly();
+        });
+
+        assertNotNull(cache.get(owner.getId()));
+        assertEquals(owner.getName(), userService.getUserById(owner.getId()).getName());
+    }
+
+    private double cacheGets(String cache, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
+    }
+}
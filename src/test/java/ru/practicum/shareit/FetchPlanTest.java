@@ -0,0 +1,144 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingIncomingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingJpaRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemWithBooking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentJpaRepository;
+import ru.practicum.shareit.item.repository.ItemJpaRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.requests.repository.ItemRequestJpaRepository;
+import ru.practicum.shareit.requests.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJpaRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Associations are lazy and open-in-view is off: every service call must fetch what it maps
+ * within its own repository calls, whether the entities come from the database or from the caches.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class FetchPlanTest {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private UserJpaRepository userRepository;
+    @Autowired
+    private ItemJpaRepository itemRepository;
+    @Autowired
+    private ItemRequestJpaRepository itemRequestRepository;
+    @Autowired
+    private BookingJpaRepository bookingRepository;
+    @Autowired
+    private CommentJpaRepository commentRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private User booker;
+    private ItemRequest request;
+    private Item item;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void beforeEach() {
+        long n = SEQUENCE.incrementAndGet();
+        owner = userRepository.save(new User(null, "owner" + n, "owner" + n + "@fetch.test"));
+        booker = userRepository.save(new User(null, "booker" + n, "booker" + n + "@fetch.test"));
+        request = itemRequestRepository.save(new ItemRequest(null, "нужна дрель", booker, LocalDateTime.now(), null));
+        item = itemRepository.save(new Item(null, "Дрель", "Дрель аккумуляторная", true, owner, request));
+        commentRepository.save(new Comment(null, "отличная дрель", item, booker));
+        now = LocalDateTime.now().withNano(0);
+    }
+
+    @Test
+    void lazyUserProxyEqualsLoadedUser() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User proxy = entityManager.getReference(User.class, owner.getId());
+
+            assertNotSame(User.class, proxy.getClass());
+            assertEquals(owner, proxy);
+            assertEquals(proxy, owner);
+            assertEquals(owner.hashCode(), proxy.hashCode());
+            assertNotEquals(booker, proxy);
+        });
+    }
+
+    @Test
+    void commentAuthorsAreFetchedWithCachedComments() throws Exception {
+        itemService.getItem(item.getId(), booker.getId());
+
+        ItemWithBooking cached = itemService.getItem(item.getId(), booker.getId());
+
+        assertEquals(booker.getName(), cached.getComments().get(0).getAuthorName());
+    }
+
+    @Test
+    void ownerViewMapsCommentAuthors() throws Exception {
+        ItemWithBooking view = itemService.getItems(owner.getId(), null, null).get(0);
+
+        assertEquals(booker.getName(), view.getComments().get(0).getAuthorName());
+    }
+
+    @Test
+    void bookingIsMappedWithItemAndBooker() throws Exception {
+        Booking booking = bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item, booker, BookStatus.WAITING));
+
+        BookingDto found = bookingService.getBookingById(booking.getId(), owner.getId());
+        BookingDto approved = bookingService.setBookingStatus(booking.getId(), true, owner.getId());
+
+        assertEquals("Дрель", found.getItem().getName());
+        assertEquals(request.getId(), found.getItem().getRequestId());
+        assertEquals(booker.getEmail(), found.getBooker().getEmail());
+        assertEquals("Дрель", approved.getItem().getName());
+        assertEquals(booker.getName(), approved.getBooker().getName());
+    }
+
+    @Test
+    void newBookingIsMappedFromCachedItem() throws Exception {
+        itemService.getItem(item.getId(), owner.getId());
+
+        BookingDto booking = bookingService.addBooking(new BookingIncomingDto(now.plusDays(3), now.plusDays(4), item.getId()), booker.getId());
+
+        assertEquals("Дрель", booking.getItem().getName());
+        assertEquals(booker.getName(), booking.getBooker().getName());
+    }
+
+    @Test
+    void requestIsMappedWithItsResponses() throws Exception {
+        ItemRequestDto found = itemRequestService.getItemRequestById(owner.getId(), request.getId());
+
+        assertEquals(booker.getId(), found.getRequestorId());
+        assertEquals("Дрель", found.getItems().get(0).getName());
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.BookStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingJpaRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemJpaRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJpaRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A database created by the former schema.sql, with IDENTITY ids and rows in it, is baselined and upgraded
+ * by the migrations when the application starts on it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + LegacySchemaMigrationTest.URL,
+        "spring.flyway.locations=classpath:db/migration/common,classpath:db/migration/{vendor}"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class LegacySchemaMigrationTest {
+    static final String URL = "jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserJpaRepository userRepository;
+    @Autowired
+    private ItemJpaRepository itemRepository;
+    @Autowired
+    private BookingJpaRepository bookingRepository;
+
+    @BeforeAll
+    static void createLegacySchema() throws Exception {
+        try (Connection connection = DriverManager.getConnection(URL, "test", "test");
+             Statement statement = connection.createStatement()) {
+            statement.execute("runscript from 'classpath:db/legacy/schema.sql'");
+            statement.execute("insert into users (user_name, email) values ('Sveta', 'mail@mail.ru'), ('User', 'mailq@mail.ru')");
+            statement.execute("insert into items (item_name, description, available, owner_id) values ('Дрель', 'Дрель аккумуляторная', true, 1)");
+            statement.execute("insert into booking (booking_start, booking_end, item_id, booker_id, status) " +
+                    "values ('2022-11-03 12:54:13', '2022-11-27 12:54:13', 1, 2, 'APPROVED')");
+        }
+    }
+
+    @Test
+    void legacySchemaIsBaselinedAndUpgraded() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "select \"version\" from \"flyway_schema_history\" where \"version\" is not null order by \"installed_rank\"", String.class);
+        assertEquals(List.of("0", "1", "1.1"), versions.subList(0, 3));
+        assertEquals(0L, jdbcTemplate.queryForObject("select version from booking where id = 1", Long.class));
+        assertEquals(1L, jdbcTemplate.queryForObject(
+                "select count(*) from item_booking_summary where item_id = 1", Long.class));
+    }
+
+    @Test
+    void newRowsGetSequenceIdsAfterExistingOnes() {
+        User user = userRepository.save(new User(null, "new", "new@legacy.test"));
+        Item item = itemRepository.save(new Item(null, "Пила", "Пила цепная", true, user, null));
+        Booking booking = bookingRepository.save(new Booking(null, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), item, user, BookStatus.WAITING));
+
+        assertTrue(user.getId() > 2);
+        assertTrue(item.getId() > 1);
+        assertTrue(booking.getId() > 1);
+        booking.setStatus(BookStatus.APPROVED);
+        assertEquals(1L, bookingRepository.save(booking).getVersion());
+    }
+}
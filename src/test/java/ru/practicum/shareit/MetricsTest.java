@@ -0,0 +1,105 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJpaRepository;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs on the configured Hikari pool rather than an embedded test database, so the pool gauges are bound.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:metrics")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class MetricsTest {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private UserJpaRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void beforeEach() {
+        long n = SEQUENCE.incrementAndGet();
+        user = userRepository.save(new User(null, "user" + n, "user" + n + "@metrics.test"));
+    }
+
+    @Test
+    void bookingRequestsAreTimedByState() throws Exception {
+        mvc.perform(get("/bookings").param("state", "WAITING").header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isOk());
+        mvc.perform(get("/bookings").param("state", "SOMETHING").header("X-Sharer-User-Id", user.getId()))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/users/{id}", user.getId())).andExpect(status().isOk());
+
+        assertTrue(requests("/bookings", "WAITING").count() > 0);
+        assertTrue(requests("/bookings/owner", "ALL").count() > 0);
+        assertTrue(requests("/bookings", "unknown").count() > 0);
+        assertTrue(requests("/users/{id}", "none").count() > 0);
+    }
+
+    @Test
+    void domainExceptionsAreCounted() throws Exception {
+        double before = errors("UserNotFoundException");
+
+        mvc.perform(get("/users/{id}", Long.MAX_VALUE)).andExpect(status().isNotFound());
+
+        assertEquals(before + 1, errors("UserNotFoundException"));
+    }
+
+    @Test
+    void serviceMethodsAreTimed() throws Exception {
+        mvc.perform(get("/users/{id}", user.getId())).andExpect(status().isOk());
+
+        Timer timer = meterRegistry.get("shareit.service")
+                .tag("class", "ru.practicum.shareit.user.service.UserServiceImpl")
+                .tag("method", "getUserById")
+                .timer();
+        assertTrue(timer.count() > 0);
+    }
+
+    @Test
+    void prometheusScrapeIncludesPoolAndLatencyMetrics() throws Exception {
+        mvc.perform(get("/users/{id}", user.getId())).andExpect(status().isOk());
+
+        mvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("hikaricp_connections_active")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+                .andExpect(content().string(containsString("quantile=\"0.99\"")));
+    }
+
+    private Timer requests(String uri, String state) {
+        return meterRegistry.get("http.server.requests").tag("uri", uri).tag("state", state).timer();
+    }
+
+    private double errors(String exception) {
+        return meterRegistry.find("shareit.errors").tag("exception", exception).counters().stream()
+                .mapToDouble(x -> x.count())
+                .sum();
+    }
+}
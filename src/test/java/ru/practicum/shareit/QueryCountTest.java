@@ -0,0 +1,348 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.BookStatus;
+import ru.practicum.shareit.booking.dto.BookingIncomingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingJpaRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaries;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentJpaRepository;
+import ru.practicum.shareit.item.repository.ItemJpaRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.requests.dto.ItemRequestDto;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.requests.repository.ItemRequestJpaRepository;
+import ru.practicum.shareit.requests.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJpaRepository;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.PageCursor;
+import ru.practicum.shareit.utils.QueryCounter;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Number of SQL statements per service call. Every call is made for the users of a small and a large data set
+ * living side by side in one database: the count has to stay within the budget and must not depend on the size.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class QueryCountTest {
+    private static final int SMALL = 5;
+    private static final int LARGE = 50;
+    private static final int PAGE = 3;
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserJpaRepository userRepository;
+    @Autowired
+    private ItemJpaRepository itemRepository;
+    @Autowired
+    private ItemRequestJpaRepository itemRequestRepository;
+    @Autowired
+    private BookingJpaRepository bookingRepository;
+    @Autowired
+    private CommentJpaRepository commentRepository;
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+    @Autowired
+    private ItemBookingSummaries itemBookingSummaries;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private World small;
+    private World large;
+
+    @BeforeAll
+    void seed() {
+        small = new World("small", SMALL);
+        large = new World("large", LARGE);
+        itemSearchIndex.rebuild();
+        itemBookingSummaries.refresh(small.itemIds());
+        itemBookingSummaries.refresh(large.itemIds());
+    }
+
+    @Test
+    void getItemByOwner() throws Throwable {
+        assertQueries(9, () -> itemService.getItem(small.firstItem(), small.owner.getId()),
+                () -> itemService.getItem(large.firstItem(), large.owner.getId()));
+    }
+
+    @Test
+    void getItemByOtherUser() throws Throwable {
+        assertQueries(2, () -> itemService.getItem(small.firstItem(), small.booker.getId()),
+                () -> itemService.getItem(large.firstItem(), large.booker.getId()));
+    }
+
+    @Test
+    void getItemsPaged() throws Throwable {
+        assertQueries(4, () -> itemService.getItems(small.owner.getId(), 0, PAGE),
+                () -> itemService.getItems(large.owner.getId(), 0, PAGE));
+    }
+
+    @Test
+    void getItems() throws Throwable {
+        assertQueries(4, () -> itemService.getItems(small.owner.getId(), null, null),
+                () -> itemService.getItems(large.owner.getId(), null, null));
+    }
+
+    @Test
+    void searchItem() throws Throwable {
+        assertQueries(1, () -> itemService.searchItem(small.tag, 0, PAGE),
+                () -> itemService.searchItem(large.tag, 0, PAGE));
+    }
+
+    @Test
+    void searchItemAfter() throws Throwable {
+        String cursor = new PageCursor(null, 0).encode();
+        assertQueries(1, () -> itemService.searchItemAfter(small.tag, cursor, PAGE),
+                () -> itemService.searchItemAfter(large.tag, cursor, PAGE));
+    }
+
+    @Test
+    void addItem() throws Throwable {
+        assertQueries(4, () -> itemService.addItem(small.newItem(), small.owner.getId()),
+                () -> itemService.addItem(large.newItem(), large.owner.getId()));
+    }
+
+    @Test
+    void addItems() throws Throwable {
+        assertQueries(5, () -> itemService.addItems(List.of(small.newItem(), small.newItem()), small.owner.getId()),
+                () -> itemService.addItems(List.of(large.newItem(), large.newItem()), large.owner.getId()));
+    }
+
+    @Test
+    void updateItem() throws Throwable {
+        ItemDto patch = new ItemDto(null, "обновлённое описание", null, null, null);
+        assertQueries(6, () -> itemService.updateItem(small.firstItem(), small.owner.getId(), patch),
+                () -> itemService.updateItem(large.firstItem(), large.owner.getId(), patch));
+    }
+
+    @Test
+    void addComment() throws Throwable {
+        assertQueries(6, () -> itemService.addComment(new Comment(null, "отзыв", null, null), small.firstItem(), small.booker.getId()),
+                () -> itemService.addComment(new Comment(null, "отзыв", null, null), large.firstItem(), large.booker.getId()));
+    }
+
+    @Test
+    void getBookingById() throws Throwable {
+        assertQueries(2, () -> bookingService.getBookingById(small.bookings.get(0).getId(), small.booker.getId()),
+                () -> bookingService.getBookingById(large.bookings.get(0).getId(), large.booker.getId()));
+    }
+
+    @Test
+    void getAllBookings() throws Throwable {
+        for (String state : List.of("ALL", "FUTURE", "PAST", "WAITING")) {
+            assertQueries(2, () -> bookingService.getAllBookings(small.booker.getId(), state, 0, PAGE),
+                    () -> bookingService.getAllBookings(large.booker.getId(), state, 0, PAGE));
+        }
+    }
+
+    @Test
+    void getAllBookingsByOwnerItems() throws Throwable {
+        for (String state : List.of("ALL", "FUTURE", "PAST", "WAITING")) {
+            assertQueries(2, () -> bookingService.getAllBookingsByOwnerItems(small.owner.getId(), state, 0, PAGE),
+                    () -> bookingService.getAllBookingsByOwnerItems(large.owner.getId(), state, 0, PAGE));
+        }
+    }
+
+    @Test
+    void getAllBookingsAfter() throws Throwable {
+        String cursor = new PageCursor(null, 0).encode();
+        assertQueries(2, () -> bookingService.getAllBookingsAfter(small.booker.getId(), "ALL", cursor, PAGE),
+                () -> bookingService.getAllBookingsAfter(large.booker.getId(), "ALL", cursor, PAGE));
+        assertQueries(2, () -> bookingService.getAllBookingsByOwnerItemsAfter(small.owner.getId(), "ALL", cursor, PAGE),
+                () -> bookingService.getAllBookingsByOwnerItemsAfter(large.owner.getId(), "ALL", cursor, PAGE));
+    }
+
+    @Test
+    void addBooking() throws Throwable {
+        assertQueries(10, () -> bookingService.addBooking(small.newBooking(), small.booker.getId()),
+                () -> bookingService.addBooking(large.newBooking(), large.booker.getId()));
+    }
+
+    @Test
+    void setBookingStatus() throws Throwable {
+        // an approval also locks the item row
+        assertQueries(10, () -> bookingService.setBookingStatus(small.waitingBooking(), true, small.owner.getId()),
+                () -> bookingService.setBookingStatus(large.waitingBooking(), true, large.owner.getId()));
+        assertQueries(9, () -> bookingService.setBookingStatus(small.waitingBooking(), false, small.owner.getId()),
+                () -> bookingService.setBookingStatus(large.waitingBooking(), false, large.owner.getId()));
+    }
+
+    @Test
+    void getItemRequestDtos() throws Throwable {
+        assertQueries(2, () -> itemRequestService.getItemRequestDtos(small.requestor.getId()),
+                () -> itemRequestService.getItemRequestDtos(large.requestor.getId()));
+    }
+
+    @Test
+    void getAllItemRequestDtos() throws Throwable {
+        assertQueries(3, () -> itemRequestService.getAllItemRequestDtos(small.requestor.getId(), 0, PAGE),
+                () -> itemRequestService.getAllItemRequestDtos(large.requestor.getId(), 0, PAGE));
+    }
+
+    @Test
+    void getAllItemRequestDtosAfter() throws Throwable {
+        String cursor = new PageCursor(null, 0).encode();
+        assertQueries(3, () -> itemRequestService.getAllItemRequestDtosAfter(small.requestor.getId(), cursor, PAGE),
+                () -> itemRequestService.getAllItemRequestDtosAfter(large.requestor.getId(), cursor, PAGE));
+    }
+
+    @Test
+    void getItemRequestById() throws Throwable {
+        assertQueries(5, () -> itemRequestService.getItemRequestById(small.owner.getId(), small.requests.get(0).getId()),
+                () -> itemRequestService.getItemRequestById(large.owner.getId(), large.requests.get(0).getId()));
+    }
+
+    @Test
+    void addItemRequest() throws Throwable {
+        assertQueries(2, () -> itemRequestService.addItemRequest(new ItemRequestDto(null, "нужна лестница", null, null, null), small.requestor.getId()),
+                () -> itemRequestService.addItemRequest(new ItemRequestDto(null, "нужна лестница", null, null, null), large.requestor.getId()));
+    }
+
+    @Test
+    void getUserById() throws Throwable {
+        assertQueries(1, () -> userService.getUserById(small.owner.getId()),
+                () -> userService.getUserById(large.owner.getId()));
+    }
+
+    @Test
+    void updateUser() throws Throwable {
+        assertQueries(3, () -> userService.updateUser(new UserDto(null, "новое имя", null), small.owner.getId()),
+                () -> userService.updateUser(new UserDto(null, "новое имя", null), large.owner.getId()));
+    }
+
+    @Test
+    void addUser() throws Throwable {
+        assertQueries(1, () -> userService.addUser(new UserDto(null, "new", "new@small.ru")),
+                () -> userService.addUser(new UserDto(null, "new", "new@large.ru")));
+    }
+
+    /**
+     * Runs the call against both data sets: each must stay within the budget and both must issue as many statements.
+     * Entity caches and the Hibernate second-level cache are cleared before each run, so the budgets hold for cold caches.
+     */
+    private void assertQueries(int max, Executable forSmall, Executable forLarge) throws Throwable {
+        clearCaches();
+        int smallCount = QueryCounter.count(forSmall);
+        List<String> smallStatements = QueryCounter.getStatements();
+        QueryCounter.assertMaxQueries(max);
+        clearCaches();
+        int largeCount = QueryCounter.count(forLarge);
+        QueryCounter.assertMaxQueries(max);
+        assertEquals(smallCount, largeCount, "query count grows with the data size\nsmall data set:\n"
+                + String.join("\n", smallStatements) + "\nlarge data set:\n" + QueryCounter.describe());
+    }
+
+    private void clearCaches() {
+        cacheManager.getCacheNames().forEach(x -> cacheManager.getCache(x).clear());
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    /**
+     * An owner with the given number of items, each answering a request of one requestor and each booked twice
+     * (a finished approved booking and a future waiting one) and commented once by one booker.
+     */
+    private class World {
+        private final String tag;
+        private final User owner;
+        private final User booker;
+        private final User requestor;
+        private final List<ItemRequest> requests = new ArrayList<>();
+        private final List<Item> items = new ArrayList<>();
+        private final List<Booking> bookings = new ArrayList<>();
+        private int created;
+
+        World(String tag, int size) {
+            this.tag = tag;
+            owner = userRepository.save(new User(null, "owner", "owner@" + tag + ".ru"));
+            booker = userRepository.save(new User(null, "booker", "booker@" + tag + ".ru"));
+            requestor = userRepository.save(new User(null, "requestor", "requestor@" + tag + ".ru"));
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < size; i++) {
+                requests.add(new ItemRequest(null, "нужна дрель " + tag, requestor, now.minusMinutes(i), null));
+            }
+            itemRequestRepository.saveAll(requests);
+            for (int i = 0; i < size; i++) {
+                items.add(new Item(null, "Дрель " + i, "дрель " + tag, true, owner, requests.get(i)));
+            }
+            itemRepository.saveAll(items);
+            for (int i = 0; i < size; i++) {
+                Item item = items.get(i);
+                bookings.add(new Booking(null, now.minusDays(10), now.minusDays(9), item, booker, BookStatus.APPROVED));
+                bookings.add(new Booking(null, now.plusDays(i + 1), now.plusDays(i + 1).plusHours(1), item, booker, BookStatus.WAITING));
+                bookings.add(new Booking(null, now.plusDays(i + 1).plusHours(2), now.plusDays(i + 1).plusHours(3), item, booker, BookStatus.WAITING));
+            }
+            bookingRepository.saveAll(bookings);
+            List<Comment> comments = new ArrayList<>();
+            for (Item item : items) {
+                comments.add(new Comment(null, "отзыв " + tag, item, booker));
+            }
+            commentRepository.saveAll(comments);
+        }
+
+        List<Long> itemIds() {
+            return items.stream().map(Item::getId).collect(Collectors.toList());
+        }
+
+        Long firstItem() {
+            return items.get(0).getId();
+        }
+
+        ItemDto newItem() {
+            return new ItemDto("Дрель", "дрель " + tag, true, null, requests.get(0).getId());
+        }
+
+        BookingIncomingDto newBooking() {
+            LocalDateTime start = LocalDateTime.now().plusYears(1).plusDays(created++);
+            return new BookingIncomingDto(start, start.plusHours(1), firstItem());
+        }
+
+        /**
+         * Next future waiting booking, taken from the end so approvals do not touch the earlier ones.
+         */
+        Long waitingBooking() {
+            for (int i = bookings.size() - 1; i >= 0; i--) {
+                Booking booking = bookings.get(i);
+                if (booking.getStatus() == BookStatus.WAITING) {
+                    booking.setStatus(BookStatus.REJECTED);
+                    return booking.getId();
+                }
+            }
+            throw new IllegalStateException("no waiting bookings left");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks with EXPLAIN that the hot queries of the repositories are served by index scans.
+ * H2 indexes foreign key columns on its own, so index names are only checked for the composite indexes.
+ */
+@JdbcTest
+public class SchemaIndexTest {
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void bookingsOfBookerUseBookerIndex() {
+        assertUsesIndex("select id from booking where booker_id = 1 order by booking_start desc, id desc",
+                "IDX_BOOKING_BOOKER_START");
+    }
+
+    @Test
+    void lastBookingsOfItemsUseItemIndex() {
+        assertUsesIndex("select id from booking where item_id in (1, 2) and booking_start < now() and status = 'APPROVED'",
+                "IDX_BOOKING_ITEM_");
+    }
+
+    @Test
+    void activeBookingsOfItemUseItemIndex() {
+        assertIndexScan("select id from booking where item_id = 1 and status in ('WAITING', 'APPROVED') and booking_end > now()");
+    }
+
+    @Test
+    void itemsOfOwnerUseOwnerIndex() {
+        assertIndexScan("select id from items where owner_id = 1");
+    }
+
+    @Test
+    void responsesToRequestsUseRequestIndex() {
+        assertIndexScan("select id from items where request_id in (1, 2, 3)");
+    }
+
+    @Test
+    void commentsOfItemsUseItemIndex() {
+        assertIndexScan("select id from comments where item_id in (1, 2)");
+    }
+
+    @Test
+    void ownRequestsUseRequestorIndex() {
+        assertUsesIndex("select id from requests where requestor_id = 1 order by created desc",
+                "IDX_REQUESTS_REQUESTOR_CREATED");
+    }
+
+    private void assertUsesIndex(String sql, String index) {
+        String plan = assertIndexScan(sql);
+        assertTrue(plan.toUpperCase().contains(index), "expected an index scan on " + index + ", got:\n" + plan);
+    }
+
+    private String assertIndexScan(String sql) {
+        String plan = jdbcTemplate.queryForObject("explain " + sql, String.class);
+        assertFalse(plan.contains(".tableScan"), "expected an index scan, got:\n" + plan);
+        return plan;
+    }
+}
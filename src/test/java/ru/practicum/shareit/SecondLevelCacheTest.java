@@ -0,0 +1,125 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentJpaRepository;
+import ru.practicum.shareit.item.repository.ItemJpaRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.requests.repository.ItemRequestJpaRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJpaRepository;
+import ru.practicum.shareit.utils.QueryCounter;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hibernate second-level and query caches: repeated reads are served without SQL and every write invalidates them.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class SecondLevelCacheTest {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private UserJpaRepository userRepository;
+    @Autowired
+    private ItemJpaRepository itemRepository;
+    @Autowired
+    private ItemRequestJpaRepository itemRequestRepository;
+    @Autowired
+    private CommentJpaRepository commentRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private ItemRequest request;
+    private Item item;
+
+    @BeforeEach
+    void beforeEach() {
+        long n = SEQUENCE.incrementAndGet();
+        owner = userRepository.save(new User(null, "owner" + n, "owner" + n + "@l2.test"));
+        User requestor = userRepository.save(new User(null, "requestor" + n, "requestor" + n + "@l2.test"));
+        request = itemRequestRepository.save(new ItemRequest(null, "нужна дрель", requestor, LocalDateTime.now(), null));
+        item = itemRepository.save(newItem("Дрель"));
+    }
+
+    @Test
+    void repeatedQueryIsServedFromCache() throws Throwable {
+        itemRepository.findItemsByRequestId(request.getId());
+
+        assertEquals(0, QueryCounter.count(() -> itemRepository.findItemsByRequestId(request.getId())));
+    }
+
+    @Test
+    void updateItemInvalidatesCachedItem() throws Exception {
+        itemRepository.findItemsByRequestId(request.getId());
+
+        itemService.updateItem(item.getId(), owner.getId(), new ItemDto("Перфоратор", null, null, null, null));
+
+        assertEquals(List.of("Перфоратор"), names(itemRepository.findItemsByRequestId(request.getId())));
+    }
+
+    @Test
+    void newItemInvalidatesCachedQuery() {
+        itemRepository.findItemsByRequestId(request.getId());
+
+        itemRepository.save(newItem("Шуруповёрт"));
+
+        assertEquals(List.of("Дрель", "Шуруповёрт"), names(itemRepository.findItemsByRequestId(request.getId())));
+    }
+
+    @Test
+    void newItemInvalidatesCachedResponses() {
+        assertEquals(List.of("Дрель"), responses());
+
+        itemRepository.save(newItem("Шуруповёрт"));
+
+        assertEquals(List.of("Дрель", "Шуруповёрт"), responses());
+    }
+
+    @Test
+    void newCommentInvalidatesCachedComments() throws Throwable {
+        commentRepository.findViewsByItemId(item.getId());
+        assertEquals(0, QueryCounter.count(() -> commentRepository.findViewsByItemId(item.getId())));
+
+        commentRepository.save(new Comment(null, "отличная дрель", item, owner));
+
+        assertEquals(1, commentRepository.findViewsByItemId(item.getId()).size());
+    }
+
+    private Item newItem(String name) {
+        return new Item(null, name, name + " для ремонта", true, owner, request);
+    }
+
+    private List<String> responses() {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                names(itemRequestRepository.findById(request.getId()).orElseThrow().getResponses()));
+    }
+
+    private static List<String> names(List<Item> items) {
+        return items.stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .map(Item::getName)
+                .collect(Collectors.toList());
+    }
+}
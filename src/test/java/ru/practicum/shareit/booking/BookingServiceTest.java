@@ -4,19 +4,21 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
+import ru.practicum.shareit.booking.interval.ItemBookingSchedule;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingJpaRepository;
+import ru.practicum.shareit.booking.repository.BookingView;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaries;
 import ru.practicum.shareit.item.ItemNotAvailableException;
 import ru.practicum.shareit.item.ItemNotFoundException;
 import ru.practicum.shareit.item.model.Item;
@@ -26,21 +28,28 @@ import ru.practicum.shareit.user.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserJpaRepository;
 import ru.practicum.shareit.utils.MyPageable;
+import ru.practicum.shareit.utils.PageCursor;
 import ru.practicum.shareit.utils.PaginationNotCorrectException;
+import ru.practicum.shareit.utils.Views;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.booking.BookingMapper.toBookingDto;
 
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
 public class BookingServiceTest {
-    @InjectMocks
     private BookingServiceImpl bookingService;
     @Mock
     private BookingJpaRepository bookingRepository;
@@ -48,6 +57,10 @@ public class BookingServiceTest {
     private ItemJpaRepository itemJpaRepository;
     @Mock
     private UserJpaRepository userJpaRepository;
+    @Mock
+    private ItemBookingSummaries itemBookingSummaries;
+    @Mock
+    private PlatformTransactionManager transactionManager;
     private BookingIncomingDto bookingIncomingDto;
     private BookingDto bookingDto;
     private Booking booking;
@@ -62,6 +75,8 @@ public class BookingServiceTest {
 
     @BeforeEach
     void beforeEach() {
+        bookingService = new BookingServiceImpl(bookingRepository, itemJpaRepository, userJpaRepository,
+                transactionManager, itemBookingSummaries, new ItemBookingSchedule(bookingRepository));
         bookingIncomingDto = new BookingIncomingDto(LocalDateTime.of(2022, 11, 15, 10, 15),
                 LocalDateTime.of(2022, 12, 15, 10, 15),
                 1L);
@@ -94,7 +109,7 @@ public class BookingServiceTest {
                 BookStatus.WAITING);
         bookingDto = toBookingDto(booking);
         sort = Sort.by(Sort.Direction.DESC, "start");
-        page = new MyPageable(0, 2, sort);
+        page = new MyPageable(0, 2, Sort.unsorted());
     }
 
     @AfterEach
@@ -160,10 +175,88 @@ public class BookingServiceTest {
         assertThrows(IncorrectBookingException.class, () -> bookingService.addBooking(bookingIncomingDto, 1L));
     }
 
+    @Test
+    void addBookingConflict() {
+        bookingIncomingDto.setStart(LocalDateTime.now().plusDays(1));
+        bookingIncomingDto.setEnd(LocalDateTime.now().plusDays(3));
+        Booking existing = new Booking(5L,
+                LocalDateTime.now().plusDays(2),
+                LocalDateTime.now().plusDays(4),
+                item,
+                owner,
+                BookStatus.APPROVED);
+        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(userJpaRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), any(), any())).thenReturn(List.of(existing));
+
+        assertThrows(BookingConflictException.class, () -> bookingService.addBooking(bookingIncomingDto, 1L));
+        verify(bookingRepository, never()).save(any());
+        bookingIncomingDto.setEnd(LocalDateTime.of(2022, 12, 15, 10, 15));
+    }
+
+    @Test
+    void addBookingConflictInDatabase() {
+        bookingIncomingDto.setStart(LocalDateTime.now().plusDays(1));
+        bookingIncomingDto.setEnd(LocalDateTime.now().plusDays(3));
+        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(userJpaRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(bookingRepository.existsByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(eq(1L), any(), any(), any()))
+                .thenReturn(true);
+
+        assertThrows(BookingConflictException.class, () -> bookingService.addBooking(bookingIncomingDto, 1L));
+        verify(itemJpaRepository).findLockedById(1L);
+        verify(bookingRepository, never()).save(any());
+        bookingIncomingDto.setEnd(LocalDateTime.of(2022, 12, 15, 10, 15));
+    }
+
+    @Test
+    void addBookingAfterExistingBooking() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        bookingIncomingDto.setStart(now.plusDays(4));
+        bookingIncomingDto.setEnd(now.plusDays(5));
+        Booking existing = new Booking(5L,
+                now.plusDays(2),
+                now.plusDays(4),
+                item,
+                owner,
+                BookStatus.APPROVED);
+        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(userJpaRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), any(), any())).thenReturn(List.of(existing));
+        when(bookingRepository.save(any())).thenReturn(booking);
+
+        assertNotNull(bookingService.addBooking(bookingIncomingDto, 1L));
+        bookingIncomingDto.setEnd(LocalDateTime.of(2022, 12, 15, 10, 15));
+    }
+
+    @Test
+    void getAllBookingsAfterCursor() throws Exception {
+        LocalDateTime cursorStart = LocalDateTime.of(2022, 12, 1, 10, 0);
+        when(userJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
+        when(bookingRepository.seekByBookerId(eq(1L), any(), any(), any(), any(), eq(List.of(BookStatus.WAITING)),
+                eq(cursorStart), eq(2L), eq(new MyPageable(0, 2, Sort.unsorted())))).thenReturn(views(waitingBooking));
+
+        List<BookingDto> bookings = bookingService.getAllBookingsAfter(1L, "WAITING", new PageCursor(cursorStart, 2L).encode(), 2);
+
+        assertEquals(1, bookings.size());
+        assertEquals(waitingBooking.getId(), bookings.get(0).getId());
+    }
+
+    @Test
+    void getAllBookingsByOwnerItemsAfterIncorrectCursor() {
+        when(userJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
+        assertThrows(PaginationNotCorrectException.class, () -> bookingService.getAllBookingsByOwnerItemsAfter(1L, "ALL", "%%%", 2));
+    }
+
+    @Test
+    void getAllBookingsAfterUnknownState() {
+        assertThrows(IncorrectBookingStatusException.class, () -> bookingService.getAllBookingsAfter(1L, "APPROVED", new PageCursor(null, 1L).encode(), 2));
+    }
+
     @Test
     void setBookingStatusApproved() throws Exception {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(waitingBooking));
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(item)));
         when(bookingRepository.save(any())).thenReturn(booking);
 
         BookingDto bookingDtoSample = bookingService.setBookingStatus(1L, true, 2L);
@@ -182,7 +275,7 @@ public class BookingServiceTest {
         bookingDto.setStatus(BookStatus.REJECTED);
         booking.setStatus(BookStatus.REJECTED);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(waitingBooking));
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(item)));
         when(bookingRepository.save(any())).thenReturn(booking);
 
         BookingDto bookingDtoSample = bookingService.setBookingStatus(1L, false, 2L);
@@ -196,6 +289,56 @@ public class BookingServiceTest {
         assertEquals(bookingDtoSample.getStatus(), bookingDto.getStatus());
     }
 
+    @Test
+    void setBookingStatusApprovedRejectsOverlappingWaiting() throws Exception {
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(waitingBooking));
+        when(itemJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(item)));
+        when(bookingRepository.findByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(1L, ItemBookingSchedule.ACTIVE_STATUSES,
+                waitingBooking.getEnd(), waitingBooking.getStart())).thenReturn(List.of(waitingBooking, secondBooking));
+        when(bookingRepository.save(any())).thenAnswer(x -> x.getArgument(0));
+
+        BookingDto bookingDtoSample = bookingService.setBookingStatus(1L, true, 2L);
+
+        assertEquals(BookStatus.APPROVED, bookingDtoSample.getStatus());
+        assertEquals(BookStatus.REJECTED, secondBooking.getStatus());
+        verify(bookingRepository).save(secondBooking);
+    }
+
+    @Test
+    void setBookingStatusApprovedRefusedWhenOverlappingApproved() {
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(waitingBooking));
+        when(itemJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(item)));
+        Booking approved = new Booking(3L, waitingBooking.getStart(), waitingBooking.getEnd(), item, user, BookStatus.APPROVED);
+        when(bookingRepository.findByItemIdAndStatusInAndStartIsBeforeAndEndIsAfter(1L, ItemBookingSchedule.ACTIVE_STATUSES,
+                waitingBooking.getEnd(), waitingBooking.getStart())).thenReturn(List.of(waitingBooking, approved));
+
+        assertThrows(IncorrectBookingException.class, () -> bookingService.setBookingStatus(1L, true, 2L));
+        assertEquals(BookStatus.WAITING, waitingBooking.getStatus());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void setBookingStatusRetriesOnVersionConflict() {
+        Booking approvedMeanwhile = new Booking(1L, waitingBooking.getStart(), waitingBooking.getEnd(), item, user, BookStatus.APPROVED);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(waitingBooking), Optional.of(waitingBooking), Optional.of(approvedMeanwhile));
+        when(itemJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(item)));
+        when(bookingRepository.save(any())).thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L));
+
+        assertThrows(IncorrectBookingException.class, () -> bookingService.setBookingStatus(1L, false, 2L));
+        verify(bookingRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    void setBookingStatusGivesUpAfterRepeatedConflicts() {
+        when(bookingRepository.findById(1L)).thenAnswer(x -> Optional.of(new Booking(1L, waitingBooking.getStart(),
+                waitingBooking.getEnd(), item, user, BookStatus.WAITING)));
+        when(itemJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(item)));
+        when(bookingRepository.save(any())).thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L));
+
+        assertThrows(BookingConflictException.class, () -> bookingService.setBookingStatus(1L, false, 2L));
+        verify(bookingRepository, times(3)).save(any());
+    }
+
     @Test
     void setBookingStatusItemNotFound() {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
@@ -210,7 +353,7 @@ public class BookingServiceTest {
     @Test
     void setBookingStatusNotOwner() {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(item)));
 
         assertThrows(IncorrectOwnerException.class, () -> bookingService.setBookingStatus(1L, true, 1L));
     }
@@ -219,7 +362,7 @@ public class BookingServiceTest {
     void setBookingIncorrectStatus() {
         item.setOwner(user);
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(item)));
 
         assertThrows(IncorrectBookingException.class, () -> bookingService.setBookingStatus(1L, true, 1L));
     }
@@ -227,7 +370,7 @@ public class BookingServiceTest {
     @Test
     void getBookingById() throws Exception {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(item)));
 
         BookingDto bookingDtoSample = bookingService.getBookingById(1L, 1L);
 
@@ -254,7 +397,7 @@ public class BookingServiceTest {
     @Test
     void getBookingByIdIncorrectOwner() {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(item)));
         assertThrows(IncorrectOwnerException.class, () -> bookingService.getBookingById(1L, 3L));
     }
 
@@ -270,15 +413,15 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsIncorrectPagination() {
-        when(userJpaRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
         assertThrows(PaginationNotCorrectException.class, () -> bookingService.getAllBookings(1L, "ALL", -1, 10));
     }
 
     @Test
     void getAllBookingsPagination() throws Exception {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(userJpaRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerId(1L, page)).thenReturn(requestPage);
+        List<BookingView> requestPage = views(booking, secondBooking);
+        when(userJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
+        when(bookingRepository.seekByBookerId(eq(1L), any(), any(), any(), any(), eq(List.of(BookStatus.values())), eq(PageCursor.LATEST), eq(Long.MAX_VALUE), eq(page))).thenReturn(requestPage);
 
         List<BookingDto> bookings = bookingService.getAllBookings(1L, "ALL", 0, 2);
 
@@ -288,9 +431,9 @@ public class BookingServiceTest {
 
     @Test
     void getFutureBookingsPagination() throws Exception {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(userJpaRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdAndStartIsAfter(any(), any(), any())).thenReturn(requestPage);
+        List<BookingView> requestPage = views(booking, secondBooking);
+        when(userJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
+        when(bookingRepository.seekByBookerId(eq(1L), any(), any(), any(), any(), eq(List.of(BookStatus.values())), eq(PageCursor.LATEST), eq(Long.MAX_VALUE), eq(page))).thenReturn(requestPage);
 
         List<BookingDto> bookings = bookingService.getAllBookings(1L, "FUTURE", 0, 2);
 
@@ -300,9 +443,9 @@ public class BookingServiceTest {
 
     @Test
     void getPastBookingsPagination() throws Exception {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(userJpaRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdAndEndIsBefore(any(), any(), any())).thenReturn(requestPage);
+        List<BookingView> requestPage = views(booking, secondBooking);
+        when(userJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
+        when(bookingRepository.seekByBookerId(eq(1L), any(), any(), any(), any(), eq(List.of(BookStatus.values())), eq(PageCursor.LATEST), eq(Long.MAX_VALUE), eq(page))).thenReturn(requestPage);
 
         List<BookingDto> bookings = bookingService.getAllBookings(1L, "PAST", 0, 2);
 
@@ -312,9 +455,9 @@ public class BookingServiceTest {
 
     @Test
     void getCurrentBookingsPagination() throws Exception {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(userJpaRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdAndStartIsBeforeAndEndIsAfter(any(), any(), any(), any())).thenReturn(requestPage);
+        List<BookingView> requestPage = views(booking, secondBooking);
+        when(userJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
+        when(bookingRepository.seekByBookerId(eq(1L), any(), any(), any(), any(), eq(List.of(BookStatus.values())), eq(PageCursor.LATEST), eq(Long.MAX_VALUE), eq(page))).thenReturn(requestPage);
 
         List<BookingDto> bookings = bookingService.getAllBookings(1L, "CURRENT", 0, 2);
 
@@ -324,9 +467,9 @@ public class BookingServiceTest {
 
     @Test
     void getWaitingBookingsPagination() throws Exception {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(userJpaRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdAndStatus(1L, BookStatus.WAITING, page)).thenReturn(requestPage);
+        List<BookingView> requestPage = views(booking, secondBooking);
+        when(userJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
+        when(bookingRepository.seekByBookerId(eq(1L), any(), any(), any(), any(), eq(List.of(BookStatus.WAITING)), eq(PageCursor.LATEST), eq(Long.MAX_VALUE), eq(page))).thenReturn(requestPage);
 
         List<BookingDto> bookings = bookingService.getAllBookings(1L, "WAITING", 0, 2);
 
@@ -336,9 +479,9 @@ public class BookingServiceTest {
 
     @Test
     void getRejectedBookingsPagination() throws Exception {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(userJpaRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdAndStatus(1L, BookStatus.REJECTED, page)).thenReturn(requestPage);
+        List<BookingView> requestPage = views(booking, secondBooking);
+        when(userJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
+        when(bookingRepository.seekByBookerId(eq(1L), any(), any(), any(), any(), eq(List.of(BookStatus.REJECTED)), eq(PageCursor.LATEST), eq(Long.MAX_VALUE), eq(page))).thenReturn(requestPage);
 
         List<BookingDto> bookings = bookingService.getAllBookings(1L, "REJECTED", 0, 2);
 
@@ -348,7 +491,7 @@ public class BookingServiceTest {
 
     @Test
     void getBookingsUnsupportedStatus() {
-        when(userJpaRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
         when(bookingRepository.findByBookerIdAndStatus(1L, BookStatus.CANCELED, sort)).thenReturn(List.of(booking, secondBooking));
 
         assertThrows(IncorrectBookingStatusException.class, () -> bookingService.getAllBookings(1L, "CANCELED", 0, 2));
@@ -356,47 +499,26 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByOwnerIncorrectStatus() {
-        when(bookingRepository.findAll()).thenReturn(List.of(booking, secondBooking));
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
         assertThrows(IncorrectBookingStatusException.class, () -> bookingService.getAllBookingsByOwnerItems(1L, "STATE", 0, 2));
     }
 
     @Test
     void getAllBookingsByOwnerNotFoundUser() {
-        when(bookingRepository.findAll()).thenReturn(List.of(booking, secondBooking));
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
         assertThrows(UserNotFoundException.class, () -> bookingService.getAllBookingsByOwnerItems(1L, "WAITING", 0, 2));
     }
 
     @Test
     void getAllBookingsByOwnerIncorrectPagination() {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(bookingRepository.findAll()).thenReturn(List.of(booking, secondBooking));
-        when(bookingRepository.findAll(page)).thenReturn(requestPage);
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userJpaRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userJpaRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
         assertThrows(PaginationNotCorrectException.class, () -> bookingService.getAllBookingsByOwnerItems(1L, "ALL", 0, 0));
     }
 
     @Test
     void getAllBookingsByOwnerAllPagination() throws Exception {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(bookingRepository.findAll()).thenReturn(List.of(booking, secondBooking));
-        when(bookingRepository.findAll(page)).thenReturn(requestPage);
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userJpaRepository.findById(2L)).thenReturn(Optional.of(user));
-        List<BookingDto> bookings = bookingService.getAllBookingsByOwnerItems(2L, "ALL", 0, 2);
-
-        assertEquals(2, bookings.size());
-        assertEquals(bookings.get(0).getId(), secondBooking.getId());
-    }
+        List<BookingView> requestPage = views(secondBooking, booking);
+        when(userJpaRepository.findViewById(2L)).thenReturn(Optional.of(Views.of(owner)));
+        when(bookingRepository.seekByItemOwnerId(eq(2L), any(), any(), any(), any(), eq(List.of(BookStatus.values())), eq(PageCursor.LATEST), eq(Long.MAX_VALUE), eq(page))).thenReturn(requestPage);
 
-    @Test
-    void getAllBookingsByOwnerAll() throws Exception {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(bookingRepository.findAll(page)).thenReturn(requestPage);
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userJpaRepository.findById(2L)).thenReturn(Optional.of(user));
         List<BookingDto> bookings = bookingService.getAllBookingsByOwnerItems(2L, "ALL", 0, 2);
 
         assertEquals(2, bookings.size());
@@ -405,23 +527,10 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByOwnerFuturePagination() throws Exception {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(bookingRepository.findAll()).thenReturn(List.of(booking, secondBooking));
-        when(bookingRepository.findAll(page)).thenReturn(requestPage);
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userJpaRepository.findById(2L)).thenReturn(Optional.of(user));
-        List<BookingDto> bookings = bookingService.getAllBookingsByOwnerItems(2L, "FUTURE", 0, 2);
-
-        assertEquals(2, bookings.size());
-        assertEquals(bookings.get(0).getId(), secondBooking.getId());
-    }
+        List<BookingView> requestPage = views(secondBooking, booking);
+        when(userJpaRepository.findViewById(2L)).thenReturn(Optional.of(Views.of(owner)));
+        when(bookingRepository.seekByItemOwnerId(eq(2L), any(), any(), any(), any(), eq(List.of(BookStatus.values())), eq(PageCursor.LATEST), eq(Long.MAX_VALUE), eq(page))).thenReturn(requestPage);
 
-    @Test
-    void getAllBookingsByOwnerFuture() throws Exception {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(bookingRepository.findAll(page)).thenReturn(requestPage);
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userJpaRepository.findById(2L)).thenReturn(Optional.of(user));
         List<BookingDto> bookings = bookingService.getAllBookingsByOwnerItems(2L, "FUTURE", 0, 2);
 
         assertEquals(2, bookings.size());
@@ -430,50 +539,22 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByOwnerPastPagination() throws Exception {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(bookingRepository.findAll()).thenReturn(List.of(booking, secondBooking));
-        when(bookingRepository.findAll(page)).thenReturn(requestPage);
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userJpaRepository.findById(2L)).thenReturn(Optional.of(user));
-        List<BookingDto> bookings = bookingService.getAllBookingsByOwnerItems(2L, "PAST", 0, 2);
+        List<BookingView> requestPage = views(booking);
+        when(userJpaRepository.findViewById(2L)).thenReturn(Optional.of(Views.of(owner)));
+        when(bookingRepository.seekByItemOwnerId(eq(2L), any(), any(), any(), any(), eq(List.of(BookStatus.values())), eq(PageCursor.LATEST), eq(Long.MAX_VALUE), eq(page))).thenReturn(requestPage);
 
-        assertEquals(0, bookings.size());
-    }
-
-    @Test
-    void getAllBookingsByOwnerPast() throws Exception {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        booking.setStart(LocalDateTime.of(2022, 8, 15, 10, 15));
-        booking.setEnd(LocalDateTime.of(2022, 8, 16, 10, 15));
-        when(bookingRepository.findAll(page)).thenReturn(requestPage);
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userJpaRepository.findById(2L)).thenReturn(Optional.of(user));
         List<BookingDto> bookings = bookingService.getAllBookingsByOwnerItems(2L, "PAST", 0, 2);
 
         assertEquals(1, bookings.size());
-        booking.setStart(LocalDateTime.of(2022, 11, 15, 10, 15));
-        booking.setEnd(LocalDateTime.of(2022, 12, 15, 10, 15));
+        assertEquals(bookings.get(0).getId(), booking.getId());
     }
 
-
     @Test
     void getAllBookingsByOwnerCurrentPagination() throws Exception {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(bookingRepository.findAll()).thenReturn(List.of(booking, secondBooking));
-        when(bookingRepository.findAll(page)).thenReturn(requestPage);
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userJpaRepository.findById(2L)).thenReturn(Optional.of(user));
-        List<BookingDto> bookings = bookingService.getAllBookingsByOwnerItems(2L, "CURRENT", 0, 2);
-
-        assertEquals(0, bookings.size());
-    }
+        List<BookingView> requestPage = List.of();
+        when(userJpaRepository.findViewById(2L)).thenReturn(Optional.of(Views.of(owner)));
+        when(bookingRepository.seekByItemOwnerId(eq(2L), any(), any(), any(), any(), eq(List.of(BookStatus.values())), eq(PageCursor.LATEST), eq(Long.MAX_VALUE), eq(page))).thenReturn(requestPage);
 
-    @Test
-    void getAllBookingsByOwnerCurrent() throws Exception {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(bookingRepository.findAll(page)).thenReturn(requestPage);
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userJpaRepository.findById(2L)).thenReturn(Optional.of(user));
         List<BookingDto> bookings = bookingService.getAllBookingsByOwnerItems(2L, "CURRENT", 0, 2);
 
         assertEquals(0, bookings.size());
@@ -481,58 +562,37 @@ public class BookingServiceTest {
 
     @Test
     void getAllBookingsByOwnerWaitingPagination() throws Exception {
-        booking.setStatus(BookStatus.WAITING);
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(bookingRepository.findAll()).thenReturn(List.of(booking, secondBooking));
-        when(bookingRepository.findAll(page)).thenReturn(requestPage);
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userJpaRepository.findById(2L)).thenReturn(Optional.of(user));
-        List<BookingDto> bookings = bookingService.getAllBookingsByOwnerItems(2L, "WAITING", 0, 2);
+        List<BookingView> requestPage = views(waitingBooking, secondBooking);
+        when(userJpaRepository.findViewById(2L)).thenReturn(Optional.of(Views.of(owner)));
+        when(bookingRepository.seekByItemOwnerId(eq(2L), any(), any(), any(), any(), eq(List.of(BookStatus.WAITING)), eq(PageCursor.LATEST), eq(Long.MAX_VALUE), eq(page))).thenReturn(requestPage);
 
-        assertEquals(2, bookings.size());
-    }
-
-    @Test
-    void getAllBookingsByOwnerWaiting() throws Exception {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(bookingRepository.findAll(page)).thenReturn(requestPage);
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userJpaRepository.findById(2L)).thenReturn(Optional.of(user));
         List<BookingDto> bookings = bookingService.getAllBookingsByOwnerItems(2L, "WAITING", 0, 2);
 
-        assertEquals(1, bookings.size());
+        assertEquals(2, bookings.size());
     }
 
     @Test
     void getAllBookingsByOwnerRejectedPagination() throws Exception {
         booking.setStatus(BookStatus.REJECTED);
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(bookingRepository.findAll()).thenReturn(List.of(booking, secondBooking));
-        when(bookingRepository.findAll(page)).thenReturn(requestPage);
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userJpaRepository.findById(2L)).thenReturn(Optional.of(user));
-        List<BookingDto> bookings = bookingService.getAllBookingsByOwnerItems(2L, "REJECTED", 0, 2);
-
-        assertEquals(1, bookings.size());
-    }
+        List<BookingView> requestPage = views(booking);
+        when(userJpaRepository.findViewById(2L)).thenReturn(Optional.of(Views.of(owner)));
+        when(bookingRepository.seekByItemOwnerId(eq(2L), any(), any(), any(), any(), eq(List.of(BookStatus.REJECTED)), eq(PageCursor.LATEST), eq(Long.MAX_VALUE), eq(page))).thenReturn(requestPage);
 
-    @Test
-    void getAllBookingsByOwnerRejected() throws Exception {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(bookingRepository.findAll(page)).thenReturn(requestPage);
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userJpaRepository.findById(2L)).thenReturn(Optional.of(user));
         List<BookingDto> bookings = bookingService.getAllBookingsByOwnerItems(2L, "REJECTED", 0, 2);
 
-        assertEquals(0, bookings.size());
+        assertEquals(1, bookings.size());
+        assertEquals(BookStatus.REJECTED, bookings.get(0).getStatus());
     }
 
     @Test
     void getAllBookingsByOwnerUnsupportedStatus() {
-        Page<Booking> requestPage = new PageImpl<>(List.of(booking, secondBooking));
-        when(bookingRepository.findAll(page)).thenReturn(requestPage);
-        when(itemJpaRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(userJpaRepository.findById(2L)).thenReturn(Optional.of(user));
+        when(userJpaRepository.findViewById(2L)).thenReturn(Optional.of(Views.of(owner)));
         assertThrows(IncorrectBookingStatusException.class, () -> bookingService.getAllBookingsByOwnerItems(2L, "APPROVED", 0, 2));
     }
+
+    private static List<BookingView> views(Booking... bookings) {
+        return Arrays.stream(bookings)
+                .map(Views::of)
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingJpaRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemJpaRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class BookingStatusConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingJpaRepository bookingRepository;
+    @Autowired
+    private ItemJpaRepository itemRepository;
+    @Autowired
+    private UserJpaRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void beforeEach() {
+        long n = SEQUENCE.incrementAndGet();
+        owner = userRepository.save(new User(null, "owner" + n, "owner" + n + "@concurrency.test"));
+        booker = userRepository.save(new User(null, "booker" + n, "booker" + n + "@concurrency.test"));
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Дрель аккумуляторная");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+        start = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    void concurrentStatusChangesHaveExactlyOneWinner() throws Exception {
+        Booking booking = bookingRepository.save(new Booking(null, start, start.plusDays(1), item, booker, BookStatus.WAITING));
+        List<Callable<BookStatus>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            boolean approved = i % 2 == 0;
+            tasks.add(() -> bookingService.setBookingStatus(booking.getId(), approved, owner.getId()).getStatus());
+        }
+
+        List<Object> results = runConcurrently(tasks);
+
+        List<Object> winners = new ArrayList<>();
+        for (Object result : results) {
+            if (result instanceof BookStatus) {
+                winners.add(result);
+            } else {
+                assertTrue(result instanceof IncorrectBookingException, () -> "unexpected " + result);
+            }
+        }
+        assertEquals(1, winners.size());
+        Booking stored = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(winners.get(0), stored.getStatus());
+        assertEquals(1L, stored.getVersion());
+    }
+
+    @Test
+    void concurrentApprovalsOfOverlappingBookingsApproveOnlyOne() throws Exception {
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookings.add(bookingRepository.save(new Booking(null, start.plusHours(i), start.plusHours(i + THREADS),
+                    item, booker, BookStatus.WAITING)));
+        }
+        List<Callable<BookStatus>> tasks = new ArrayList<>();
+        for (Booking booking : bookings) {
+            tasks.add(() -> bookingService.setBookingStatus(booking.getId(), true, owner.getId()).getStatus());
+        }
+
+        List<Object> results = runConcurrently(tasks);
+
+        assertEquals(1, results.stream().filter(x -> x == BookStatus.APPROVED).count());
+        List<Booking> stored = bookingRepository.findAllById(bookings.stream().map(Booking::getId).collect(Collectors.toList()));
+        assertEquals(1, stored.stream().filter(x -> x.getStatus() == BookStatus.APPROVED).count());
+        assertEquals(THREADS - 1, stored.stream().filter(x -> x.getStatus() == BookStatus.REJECTED).count());
+    }
+
+    @Test
+    void staleBookingUpdateIsRejectedByVersion() {
+        Booking booking = bookingRepository.save(new Booking(null, start, start.plusDays(1), item, booker, BookStatus.WAITING));
+        Booking first = bookingRepository.findById(booking.getId()).orElseThrow();
+        Booking second = bookingRepository.findById(booking.getId()).orElseThrow();
+
+        first.setStatus(BookStatus.APPROVED);
+        bookingRepository.save(first);
+        second.setStatus(BookStatus.REJECTED);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> bookingRepository.save(second));
+        assertEquals(BookStatus.APPROVED, bookingRepository.findById(booking.getId()).orElseThrow().getStatus());
+    }
+
+    private List<Object> runConcurrently(List<? extends Callable<?>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        CountDownLatch ready = new CountDownLatch(tasks.size());
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Object>> futures = new ArrayList<>();
+        for (Callable<?> task : tasks) {
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                try {
+                    return task.call();
+                } catch (Exception e) {
+                    return e;
+                }
+            }));
+        }
+        ready.await();
+        go.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        List<Object> results = new ArrayList<>();
+        for (Future<Object> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+}
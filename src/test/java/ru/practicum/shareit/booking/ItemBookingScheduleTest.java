@@ -0,0 +1,175 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import ru.practicum.shareit.booking.interval.ItemBookingSchedule;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingJpaRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ItemBookingScheduleTest {
+    @Mock
+    private BookingJpaRepository bookingRepository;
+    private ItemBookingSchedule schedule;
+    private Item item;
+    private LocalDateTime base;
+    private AtomicLong ids;
+    private List<Booking> stored;
+
+    @BeforeEach
+    void beforeEach() {
+        schedule = new ItemBookingSchedule(bookingRepository);
+        item = new Item();
+        item.setId(1L);
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+        ids = new AtomicLong(100);
+        stored = new ArrayList<>();
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(1L), any(), any())).thenAnswer(x -> active());
+    }
+
+    @Test
+    void reserveRejectsOverlapsAndAllowsAdjacentIntervals() throws Exception {
+        save(booking(10, 20));
+
+        assertThrows(BookingConflictException.class, () -> schedule.reserve(booking(15, 25), this::save));
+        assertThrows(BookingConflictException.class, () -> schedule.reserve(booking(5, 11), this::save));
+        assertThrows(BookingConflictException.class, () -> schedule.reserve(booking(12, 13), this::save));
+        assertNotNull(schedule.reserve(booking(20, 30), this::save));
+        assertNotNull(schedule.reserve(booking(0, 10), this::save));
+        assertThrows(BookingConflictException.class, () -> schedule.reserve(booking(25, 26), this::save));
+        verify(bookingRepository, times(4)).findByItemIdAndStatusInAndEndIsAfter(eq(1L), any(), any());
+    }
+
+    @Test
+    void acceptedBookingsAreCheckedWithoutQueries() throws Exception {
+        schedule.reserve(booking(0, 10), this::save);
+        schedule.reserve(booking(10, 20), this::save);
+        schedule.reserve(booking(30, 40), this::save);
+
+        verify(bookingRepository, times(1)).findByItemIdAndStatusInAndEndIsAfter(eq(1L), any(), any());
+    }
+
+    @Test
+    void statusChangeMadeElsewhereFreesTheSlot() throws Exception {
+        Booking first = schedule.reserve(booking(10, 20), this::save);
+        first.setStatus(BookStatus.REJECTED);
+
+        assertNotNull(schedule.reserve(booking(10, 20), this::save));
+        assertThrows(BookingConflictException.class, () -> schedule.reserve(booking(15, 16), this::save));
+    }
+
+    @Test
+    void releaseFreesTheInterval() throws Exception {
+        Booking first = schedule.reserve(booking(10, 20), this::save);
+        assertThrows(BookingConflictException.class, () -> schedule.reserve(booking(10, 20), this::save));
+
+        first.setStatus(BookStatus.REJECTED);
+        schedule.release(first);
+
+        assertNotNull(schedule.reserve(booking(10, 20), this::save));
+    }
+
+    @Test
+    void conflictFoundByInsertReloadsTheTree() throws Exception {
+        assertThrows(BookingConflictException.class, () -> schedule.reserve(booking(10, 20), x -> null));
+
+        assertNotNull(schedule.reserve(booking(10, 20), this::save));
+        verify(bookingRepository, times(2)).findByItemIdAndStatusInAndEndIsAfter(eq(1L), any(), any());
+    }
+
+    @Test
+    void reserveMatchesBruteForceOverlapCheck() {
+        Random random = new Random(42);
+        List<Booking> accepted = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int start = random.nextInt(5000);
+            Booking candidate = booking(start, start + 1 + random.nextInt(20));
+            boolean expectedConflict = accepted.stream()
+                    .anyMatch(x -> x.getStart().isBefore(candidate.getEnd()) && candidate.getStart().isBefore(x.getEnd()));
+            try {
+                accepted.add(schedule.reserve(candidate, this::save));
+                assertFalse(expectedConflict);
+            } catch (BookingConflictException e) {
+                assertTrue(expectedConflict);
+            }
+            if (!accepted.isEmpty() && random.nextInt(4) == 0) {
+                Booking released = accepted.remove(random.nextInt(accepted.size()));
+                released.setStatus(BookStatus.REJECTED);
+                schedule.release(released);
+            }
+        }
+    }
+
+    @Test
+    void concurrentReservationsOfTheSameSlotHaveOneWinner() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                start.await();
+                try {
+                    schedule.reserve(booking(10, 20), this::save);
+                    reserved.incrementAndGet();
+                } catch (BookingConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1, reserved.get());
+        assertEquals(threads - 1, conflicts.get());
+    }
+
+    private Booking booking(int startHour, int endHour) {
+        return new Booking(null, base.plusHours(startHour), base.plusHours(endHour), item, null, BookStatus.WAITING);
+    }
+
+    private Booking save(Booking booking) {
+        booking.setId(ids.incrementAndGet());
+        synchronized (stored) {
+            stored.add(booking);
+        }
+        return booking;
+    }
+
+    private List<Booking> active() {
+        synchronized (stored) {
+            return stored.stream()
+                    .filter(x -> ItemBookingSchedule.ACTIVE_STATUSES.contains(x.getStatus()))
+                    .collect(Collectors.toList());
+        }
+    }
+}
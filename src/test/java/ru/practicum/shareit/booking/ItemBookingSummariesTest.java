@@ -0,0 +1,135 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingIncomingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingJpaRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryJpaRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaries;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemJpaRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ItemBookingSummariesTest {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Autowired
+    private ItemBookingSummaries itemBookingSummaries;
+    @Autowired
+    private ItemBookingSummaryJpaRepository summaryRepository;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingJpaRepository bookingRepository;
+    @Autowired
+    private ItemJpaRepository itemRepository;
+    @Autowired
+    private UserJpaRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void beforeEach() {
+        long n = SEQUENCE.incrementAndGet();
+        owner = userRepository.save(new User(null, "owner" + n, "owner" + n + "@summary.test"));
+        booker = userRepository.save(new User(null, "booker" + n, "booker" + n + "@summary.test"));
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Дрель аккумуляторная");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+        now = LocalDateTime.now().withNano(0);
+    }
+
+    @Test
+    void missingSummaryIsComputedOnReadWithoutWriting() {
+        Booking past = bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker, BookStatus.APPROVED));
+        Booking future = bookingRepository.save(new Booking(null, now.plusDays(2), now.plusDays(3), item, booker, BookStatus.WAITING));
+
+        ItemBookingSummary summary = itemBookingSummaries.get(List.of(item.getId())).get(item.getId());
+
+        assertEquals(past.getId(), summary.getLastBooking().getBookingId());
+        assertEquals(booker.getId(), summary.getLastBooking().getBookerId());
+        assertEquals(future.getId(), summary.getNextBooking().getBookingId());
+        assertEquals(future.getStart(), summary.getValidUntil());
+        assertTrue(summaryRepository.findById(item.getId()).isEmpty());
+    }
+
+    @Test
+    void outdatedSummaryIsRecomputedInReadOnlyTransactionAndStoredBySweep() {
+        itemBookingSummaries.create(List.of(item.getId()));
+        Booking current = bookingRepository.save(new Booking(null, now.minusHours(1), now.plusHours(1), item, booker, BookStatus.APPROVED));
+        ItemBookingSummary outdated = summaryRepository.findById(item.getId()).orElseThrow();
+        outdated.setValidUntil(now.minusMinutes(1));
+        summaryRepository.save(outdated);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        ItemBookingSummary summary = readOnly.execute(status -> itemBookingSummaries.get(List.of(item.getId())).get(item.getId()));
+
+        assertEquals(current.getEnd(), summary.getValidUntil());
+        assertEquals(now.minusMinutes(1), summaryRepository.findById(item.getId()).orElseThrow().getValidUntil());
+
+        itemBookingSummaries.sweep();
+
+        assertEquals(current.getEnd(), summaryRepository.findById(item.getId()).orElseThrow().getValidUntil());
+    }
+
+    @Test
+    void bookingWritesRefreshSummaryOfItem() throws Exception {
+        itemBookingSummaries.create(List.of(item.getId()));
+        BookingIncomingDto booking = new BookingIncomingDto(now.plusDays(1), now.plusDays(2), item.getId());
+
+        Long bookingId = bookingService.addBooking(booking, booker.getId()).getId();
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertNull(summary.getLastBooking());
+        assertEquals(bookingId, summary.getNextBooking().getBookingId());
+        assertEquals(BookStatus.WAITING, summary.getNextBooking().getStatus());
+
+        bookingService.setBookingStatus(bookingId, true, owner.getId());
+
+        summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(BookStatus.APPROVED, summary.getNextBooking().getStatus());
+    }
+
+    @Test
+    void sweepRefreshesOutdatedSummaries() {
+        itemBookingSummaries.create(List.of(item.getId()));
+        Booking current = bookingRepository.save(new Booking(null, now.minusHours(1), now.plusHours(1), item, booker, BookStatus.APPROVED));
+        ItemBookingSummary outdated = summaryRepository.findById(item.getId()).orElseThrow();
+        outdated.setValidUntil(now.minusMinutes(1));
+        summaryRepository.save(outdated);
+
+        itemBookingSummaries.sweep();
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertEquals(current.getEnd(), summary.getValidUntil());
+        assertNull(summary.getNextBooking());
+    }
+}
@@ -18,6 +18,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.requests.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.PageCursor;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -131,6 +132,79 @@ public class ShareItIntegrationTest {
                 .andExpect(content().json(mapper.writeValueAsString(List.of(bookingSecondDto, bookingDto))));
     }
 
+    @Test
+    void getAllBookingsByOwner() throws Exception {
+        mockMvc.perform(get("/bookings/owner?from=0&size=2")
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(bookingSecondDto, bookingDto))));
+    }
+
+    @Test
+    void getAllBookingsWithCursor() throws Exception {
+        String cursor = mockMvc.perform(get("/bookings?size=1")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(PageCursor.HEADER))
+                .andExpect(content().json(mapper.writeValueAsString(List.of(bookingSecondDto))))
+                .andReturn().getResponse().getHeader(PageCursor.HEADER);
+
+        cursor = mockMvc.perform(get("/bookings?size=1&cursor=" + cursor)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(bookingDto))))
+                .andReturn().getResponse().getHeader(PageCursor.HEADER);
+
+        mockMvc.perform(get("/bookings?size=1&cursor=" + cursor)
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(PageCursor.HEADER))
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    void getAllBookingsWithIncorrectCursor() throws Exception {
+        mockMvc.perform(get("/bookings/owner?size=1&cursor=broken")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is("INCORRECT_PAGINATION")))
+                .andExpect(jsonPath("$.description", is("Некорректный курсор постраничного вывода")));
+    }
+
+    @Test
+    void searchItem() throws Exception {
+        mockMvc.perform(get("/items/search?text=DeScRiP&from=0&size=10")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(itemDto))));
+    }
+
+    @Test
+    void addUsersBatch() throws Exception {
+        mockMvc.perform(post("/users/batch")
+                        .content(mapper.writeValueAsString(List.of(
+                                new UserDto(null, "Batch", "batch1@mail.ru"),
+                                new UserDto(null, "Copy", "mail@mail.ru"),
+                                new UserDto(null, "Batch", "batch2@mail.ru"))))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", is(3)))
+                .andExpect(jsonPath("$[0].id").isNumber())
+                .andExpect(jsonPath("$[1].error", is("пользователь с таким Email уже существует")))
+                .andExpect(jsonPath("$[2].index", is(2)))
+                .andExpect(jsonPath("$[2].id").isNumber());
+    }
+
     @Test
     void getBookingNotFound() throws Exception {
         mockMvc.perform(get("/bookings/300")
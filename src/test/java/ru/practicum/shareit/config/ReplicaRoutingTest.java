@@ -0,0 +1,70 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserJpaRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Both pools point at the same in-memory database, standing in for a primary and its synchronous replica.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "shareit.datasource.replica.url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ReplicaRoutingTest {
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primary;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replica;
+    @Autowired
+    private UserJpaRepository userRepository;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            userRepository.findAll();
+            assertEquals(1, replica.getHikariPoolMXBean().getActiveConnections());
+            assertEquals(0, primary.getHikariPoolMXBean().getActiveConnections());
+        });
+    }
+
+    @Test
+    void writeTransactionUsesPrimary() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userRepository.findAll();
+            assertEquals(1, primary.getHikariPoolMXBean().getActiveConnections());
+        });
+    }
+
+    @Test
+    void readsSeeWrites() throws Exception {
+        UserDto owner = userService.addUser(new UserDto(null, "owner", "owner@routing.test"));
+        ItemDto item = itemService.addItem(new ItemDto("Дрель", "Дрель аккумуляторная", true, null, null), owner.getId());
+
+        assertEquals("owner", userService.getUserById(owner.getId()).getName());
+        assertEquals(item.getId(), itemService.getItems(owner.getId(), null, null).get(0).getId());
+    }
+}
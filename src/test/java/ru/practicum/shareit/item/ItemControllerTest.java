@@ -20,13 +20,16 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.BatchResultDto;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -108,6 +111,34 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.requestId", is(itemDto.getRequestId()), Long.class));
     }
 
+    @Test
+    void addItems() throws Exception {
+        when(itemService.addItems(any(), eq(1L)))
+                .thenReturn(List.of(new BatchResultDto(null, 1L, null), BatchResultDto.failed("параметры вещи заданы некорректно")));
+
+        mockMvc.perform(post("/items/batch")
+                        .content(mapper.writeValueAsString(List.of(itemDto, new ItemDto())))
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(
+                        new BatchResultDto(0, 1L, null),
+                        new BatchResultDto(1, null, "параметры вещи заданы некорректно")))));
+    }
+
+    @Test
+    void addItemsNotArray() throws Exception {
+        mockMvc.perform(post("/items/batch")
+                        .content(mapper.writeValueAsString(itemDto))
+                        .header("X-Sharer-User-Id", 1L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is("VALIDATION_FAILED")));
+    }
+
     @Test
     void updateItem() throws Exception {
         when(itemService.updateItem(any(), any(), any()))
@@ -144,6 +175,21 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.id", is(itemWithBooking.getId()), Long.class));
     }
 
+    @Test
+    void getItemNotFound() throws Exception {
+        when(itemService.getItem(2L, 1L))
+                .thenThrow(new ItemNotFoundException("Запрашиваемой вещи не существует"));
+
+        mockMvc.perform(get("/items/2")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code", is("ITEM_NOT_FOUND")))
+                .andExpect(jsonPath("$.error", is("Запрашиваемой вещи не существует")))
+                .andExpect(jsonPath("$.description", is("Запрашиваемой вещи не существует")));
+        assertEquals(0, new ItemNotFoundException("нет").getStackTrace().length);
+    }
+
     @Test
     void getItems() throws Exception {
         when(itemService.getItems(any(), any(), any()))
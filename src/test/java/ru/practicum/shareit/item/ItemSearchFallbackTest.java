@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemJpaRepository;
+import ru.practicum.shareit.item.repository.ItemView;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJpaRepository;
+import ru.practicum.shareit.utils.MyPageable;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The SQL search used until the index is built must find the same items as the index.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ItemSearchFallbackTest {
+    @Autowired
+    private ItemJpaRepository itemRepository;
+    @Autowired
+    private UserJpaRepository userRepository;
+
+    @Test
+    void searchFoldsYoOnBothSides() {
+        User owner = userRepository.save(new User(null, "owner", "owner@fallback.test"));
+        Item tree = itemRepository.save(new Item(null, "Ёлка", "искусственная", true, owner, null));
+        Item decoration = itemRepository.save(new Item(null, "Игрушки", "на елку", true, owner, null));
+
+        assertEquals(List.of(tree.getId(), decoration.getId()), search("%елк%"));
+    }
+
+    private List<Long> search(String pattern) {
+        return itemRepository.searchAvailable(pattern, 0L, new MyPageable(0, 10, Sort.unsorted()))
+                .stream()
+                .map(ItemView::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemJpaRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class ItemSearchIndexTest {
+    @Mock
+    private ItemJpaRepository itemRepository;
+    private ItemSearchIndex index;
+    private Item drill;
+    private Item saw;
+    private Item brokenDrill;
+
+    @BeforeEach
+    void beforeEach() {
+        index = new ItemSearchIndex(itemRepository, 2);
+        drill = new Item(1L, "Дрель", "Аккумуляторная дрель Makita", true, null, null);
+        saw = new Item(2L, "Saw", "Electric saw, ёлку спилит", true, null, null);
+        brokenDrill = new Item(3L, "Дрель", "сломана", false, null, null);
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2))).thenReturn(List.of(drill, saw));
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(2L, PageRequest.of(0, 2))).thenReturn(List.of(brokenDrill));
+        index.rebuild();
+    }
+
+    @Test
+    void rebuildReadsItemsInChunks() {
+        assertTrue(index.isReady());
+        assertEquals(List.of(1L), index.search("дрель", 0, 10));
+    }
+
+    @Test
+    void searchIsCaseInsensitiveForRussianAndEnglish() {
+        assertEquals(List.of(1L), index.search("ДРЕЛЬ", 0, 10));
+        assertEquals(List.of(1L), index.search("mAkItA", 0, 10));
+        assertEquals(List.of(2L), index.search("ЕЛКУ", 0, 10));
+    }
+
+    @Test
+    void searchMatchesSubstringsAcrossWords() {
+        assertEquals(List.of(1L), index.search("ная дре", 0, 10));
+        assertEquals(List.of(2L), index.search("ic s", 0, 10));
+        assertEquals(List.of(1L, 2L), index.search("a", 0, 10));
+        assertTrue(index.search("дрель makita saw", 0, 10).isEmpty());
+    }
+
+    @Test
+    void searchReturnsRequestedPage() {
+        assertEquals(List.of(1L), index.search("a", 0, 1));
+        assertEquals(List.of(2L), index.search("a", 1, 1));
+        assertTrue(index.search("a", 2, 1).isEmpty());
+    }
+
+    @Test
+    void indexFollowsAvailabilityAndUpdates() {
+        brokenDrill.setAvailable(true);
+        index.index(brokenDrill);
+        assertEquals(List.of(1L, 3L), index.search("дрель", 0, 10));
+
+        drill.setAvailable(false);
+        index.index(drill);
+        assertEquals(List.of(3L), index.search("дрель", 0, 10));
+
+        saw.setDescription("Пила");
+        index.index(saw);
+        assertTrue(index.search("electric", 0, 10).isEmpty());
+        assertEquals(List.of(2L), index.search("пила", 0, 10));
+    }
+}
@@ -9,6 +9,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -19,7 +20,10 @@ import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingIncomingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingSnapshot;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.repository.BookingJpaRepository;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaries;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBooking;
@@ -27,6 +31,7 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentJpaRepository;
 import ru.practicum.shareit.item.repository.ItemJpaRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.requests.RequestNotFoundException;
 import ru.practicum.shareit.requests.model.ItemRequest;
@@ -36,16 +41,27 @@ import ru.practicum.shareit.user.UserNotFoundException;
 import ru.practicum.shareit.user.ValidationException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserJpaRepository;
+import ru.practicum.shareit.utils.BatchResultDto;
 import ru.practicum.shareit.utils.MyPageable;
+import ru.practicum.shareit.utils.PageCursor;
+import ru.practicum.shareit.utils.PaginationNotCorrectException;
+import ru.practicum.shareit.utils.Views;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.booking.BookingMapper.toBookerDto;
 import static ru.practicum.shareit.booking.BookingMapper.toBookingDto;
@@ -67,6 +83,12 @@ public class ItemServiceTest {
     private CommentJpaRepository commentJpaRepository;
     @Mock
     private ItemRequestJpaRepository itemRequestJpaRepository;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private ItemBookingSummaries itemBookingSummaries;
+    @Mock
+    private CacheManager cacheManager;
     private BookingIncomingDto bookingIncomingDto;
     private BookingDto bookingDto;
     private Booking booking;
@@ -82,6 +104,7 @@ public class ItemServiceTest {
     private BookerDto last;
     private BookerDto next;
     private ItemWithBooking itemWithBooking;
+    private ItemBookingSummary summary;
     private Comment comment;
     private CommentDto commentDto;
 
@@ -125,6 +148,8 @@ public class ItemServiceTest {
         last = toBookerDto(booking, item, user.getId());
         next = toBookerDto(secondBooking, item, owner.getId());
         itemWithBooking = toItemWithBooking(item, last, next, List.of(commentDto));
+        summary = new ItemBookingSummary(1L);
+        summary.setLastBooking(new BookingSnapshot(booking.getId(), user.getId(), booking.getStart(), booking.getEnd(), booking.getStatus()));
     }
 
     @AfterEach
@@ -166,6 +191,55 @@ public class ItemServiceTest {
         assertEquals(itemDto, itemService.addItem(itemDto, 1L));
     }
 
+    @Test
+    void addItems() throws Exception {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(itemRequestJpaRepository.findAllById(Set.of(itemDto.getRequestId(), 404L))).thenReturn(List.of(itemRequest));
+        when(itemRepository.saveAll(any())).thenAnswer(x -> {
+            List<Item> items = x.getArgument(0);
+            long id = 10;
+            for (Item saved : items) {
+                saved.setId(id++);
+            }
+            return items;
+        });
+
+        List<BatchResultDto> results = itemService.addItems(Arrays.asList(
+                itemDto,
+                new ItemDto("name", null, true, null, null),
+                new ItemDto("name", "description", true, null, 404L),
+                null,
+                new ItemDto("second", "description", false, null, null)), 1L);
+
+        assertEquals(new BatchResultDto(null, 10L, null), results.get(0));
+        assertEquals("параметры вещи заданы некорректно", results.get(1).getError());
+        assertEquals("Запроса не существует", results.get(2).getError());
+        assertEquals("параметры вещи заданы некорректно", results.get(3).getError());
+        assertEquals(new BatchResultDto(null, 11L, null), results.get(4));
+        verify(itemRequestJpaRepository, times(1)).findAllById(any());
+        verify(itemSearchIndex, times(2)).index(any());
+    }
+
+    @Test
+    void addItemsWithoutRequests() throws Exception {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(itemRepository.saveAll(any())).thenAnswer(x -> {
+            List<Item> items = x.getArgument(0);
+            items.forEach(saved -> saved.setId(10L));
+            return items;
+        });
+
+        List<BatchResultDto> results = itemService.addItems(List.of(new ItemDto("name", "description", true, null, null)), 1L);
+
+        assertEquals(List.of(new BatchResultDto(null, 10L, null)), results);
+        verify(itemRequestJpaRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void addItemsUserNotFound() {
+        assertThrows(UserNotFoundException.class, () -> itemService.addItems(List.of(itemDto), 1L));
+    }
+
     @Test
     void updateItemNotFound() {
         assertThrows(ItemNotFoundException.class, () -> itemService.updateItem(1L, 1L, itemDto));
@@ -219,9 +293,8 @@ public class ItemServiceTest {
     void getItemOwner() throws Exception {
         itemWithBooking.setNextBooking(null);
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(bookingJpaRepository.findByItemId(1L)).thenReturn(List.of(booking));
-        when(commentJpaRepository.findCommentsByItemId(anyLong())).thenReturn(List.of(comment));
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(itemBookingSummaries.get(anyCollection())).thenReturn(Map.of(1L, summary));
+        when(commentJpaRepository.findCommentsByItemIdIn(anyCollection())).thenReturn(List.of(comment));
         ItemWithBooking itemDto1 = itemService.getItem(1L, 1L);
         assertEquals(itemWithBooking.getId(), itemService.getItem(1L, 1L).getId());
         assertEquals(itemWithBooking.getLastBooking(), itemService.getItem(1L, 1L).getLastBooking());
@@ -234,7 +307,7 @@ public class ItemServiceTest {
     void getItemNotOwner() throws Exception {
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         when(bookingJpaRepository.findByItemId(1L)).thenReturn(List.of(booking));
-        when(commentJpaRepository.findCommentsByItemId(anyLong())).thenReturn(List.of(comment));
+        when(commentJpaRepository.findViewsByItemId(anyLong())).thenReturn(List.of(Views.of(comment)));
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         ItemWithBooking itemDto1 = itemService.getItem(1L, 2L);
         assertEquals(itemWithBooking.getId(), itemDto1.getId());
@@ -250,14 +323,11 @@ public class ItemServiceTest {
 
     @Test
     void getItemsPagination() throws Exception {
-        Sort sortByCreated = Sort.by(Sort.Direction.DESC, "id");
-        Pageable pageable = new MyPageable(0, 1, sortByCreated);
-        Page<Item> itemsPage = new PageImpl<>(List.of(item));
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(bookingJpaRepository.findByItemId(1L)).thenReturn(List.of(booking));
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwner(user, pageable)).thenReturn(itemsPage);
-        when(commentJpaRepository.findCommentsByItemId(anyLong())).thenReturn(List.of(comment));
+        Pageable pageable = new MyPageable(0, 1, Sort.unsorted());
+        when(itemBookingSummaries.get(anyCollection())).thenReturn(Map.of(1L, summary));
+        when(userRepository.findViewById(user.getId())).thenReturn(Optional.of(Views.of(user)));
+        when(itemRepository.findViewsByOwnerId(user.getId(), pageable)).thenReturn(List.of(Views.of(item)));
+        when(commentJpaRepository.findCommentsByItemIdIn(anyCollection())).thenReturn(List.of(comment));
         List<ItemWithBooking> items = itemService.getItems(user.getId(), 0, 1);
         assertEquals(1, items.size());
         assertEquals(itemWithBooking.getId(), items.get(0).getId());
@@ -267,16 +337,27 @@ public class ItemServiceTest {
 
     @Test
     void getItemsWithoutPagination() throws Exception {
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(bookingJpaRepository.findByItemId(1L)).thenReturn(List.of(booking));
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(commentJpaRepository.findCommentsByItemId(anyLong())).thenReturn(List.of(comment));
-        when(itemRepository.findAllByOwner(user)).thenReturn(List.of(item));
+        when(itemBookingSummaries.get(anyCollection())).thenReturn(Map.of(1L, summary));
+        when(userRepository.findViewById(user.getId())).thenReturn(Optional.of(Views.of(user)));
+        when(commentJpaRepository.findCommentsByItemIdIn(anyCollection())).thenReturn(List.of(comment));
+        when(itemRepository.findViewsByOwnerId(user.getId(), Pageable.unpaged())).thenReturn(List.of(Views.of(item)));
         List<ItemWithBooking> items = itemService.getItems(user.getId(), null, null);
         assertEquals(1, items.size());
         assertEquals(itemWithBooking.getId(), items.get(0).getId());
         assertEquals(itemWithBooking.getLastBooking(), items.get(0).getLastBooking());
         assertNull(items.get(0).getNextBooking());
+        assertEquals(1, items.get(0).getComments().size());
+    }
+
+    @Test
+    void getItemsWithoutBookings() throws Exception {
+        when(userRepository.findViewById(user.getId())).thenReturn(Optional.of(Views.of(user)));
+        when(itemRepository.findViewsByOwnerId(user.getId(), Pageable.unpaged())).thenReturn(List.of(Views.of(item)));
+        List<ItemWithBooking> items = itemService.getItems(user.getId(), null, null);
+        assertEquals(1, items.size());
+        assertNull(items.get(0).getLastBooking());
+        assertNull(items.get(0).getNextBooking());
+        assertTrue(items.get(0).getComments().isEmpty());
     }
 
     @Test
@@ -286,15 +367,60 @@ public class ItemServiceTest {
 
     @Test
     void searchItemPagination() throws Exception {
-        Sort sortById = Sort.by(Sort.Direction.ASC, "id");
-        Pageable pageable = new MyPageable(0, 1, sortById);
-        Page<Item> itemsPage = new PageImpl<>(List.of(item));
-        when(itemRepository.findAll(pageable)).thenReturn(itemsPage);
-        List<ItemDto> items = itemService.searchItem("description", 0, 1);
+        Pageable pageable = new MyPageable(0, 1, Sort.unsorted());
+        when(itemRepository.searchAvailable("%description%", 0L, pageable)).thenReturn(List.of(Views.of(item)));
+        List<ItemDto> items = itemService.searchItem("Description", 0, 1);
         assertEquals(toItemDto(item), items.get(0));
         assertEquals(1, items.size());
     }
 
+    @Test
+    void searchItemFromIndex() throws Exception {
+        when(itemSearchIndex.isReady()).thenReturn(true);
+        when(itemSearchIndex.search("description", 0, 1)).thenReturn(List.of(1L));
+        when(itemRepository.findViewsByIdIn(List.of(1L))).thenReturn(List.of(Views.of(item)));
+        List<ItemDto> items = itemService.searchItem("description", 0, 1);
+        assertEquals(List.of(toItemDto(item)), items);
+    }
+
+    @Test
+    void searchItemAfterCursorFromIndex() throws Exception {
+        when(itemSearchIndex.isReady()).thenReturn(true);
+        when(itemSearchIndex.searchAfter("description", 5L, 1)).thenReturn(List.of(1L));
+        when(itemRepository.findViewsByIdIn(List.of(1L))).thenReturn(List.of(Views.of(item)));
+        List<ItemDto> items = itemService.searchItemAfter("description", new PageCursor(null, 5L).encode(), 1);
+        assertEquals(List.of(toItemDto(item)), items);
+    }
+
+    @Test
+    void searchItemAfterCursor() throws Exception {
+        Pageable pageable = new MyPageable(0, 1, Sort.unsorted());
+        when(itemRepository.searchAvailable("%description%", 5L, pageable)).thenReturn(List.of(Views.of(item)));
+        List<ItemDto> items = itemService.searchItemAfter("description", new PageCursor(null, 5L).encode(), 1);
+        assertEquals(List.of(toItemDto(item)), items);
+    }
+
+    @Test
+    void searchItemIncorrectPagination() {
+        assertThrows(PaginationNotCorrectException.class, () -> itemService.searchItem("description", -1, 1));
+    }
+
+    @Test
+    void searchItemEscapesWildcards() throws Exception {
+        Pageable pageable = new MyPageable(0, 1, Sort.unsorted());
+        when(itemRepository.searchAvailable("%100\\%\\_%", 0L, pageable)).thenReturn(List.of(Views.of(item)));
+        List<ItemDto> items = itemService.searchItem("100%_", 0, 1);
+        assertEquals(1, items.size());
+    }
+
+    @Test
+    void searchItemFoldsYoLikeIndex() throws Exception {
+        Pageable pageable = new MyPageable(0, 1, Sort.unsorted());
+        when(itemRepository.searchAvailable("%елка%", 0L, pageable)).thenReturn(List.of(Views.of(item)));
+        List<ItemDto> items = itemService.searchItem("Ёлка", 0, 1);
+        assertEquals(1, items.size());
+    }
+
     @Test
     void addCommentEmptyBookings() {
         when(bookingJpaRepository.findByBookerIdAndItemIdAndStatus(1L, 1L, BookStatus.APPROVED)).thenReturn(new ArrayList<>());
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.summary.ItemBookingSummaries;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemJpaRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJpaRepository;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * An item, its booking summary and its search index entry are written together or not at all.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class ItemWriteTransactionTest {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemJpaRepository itemRepository;
+    @Autowired
+    private UserJpaRepository userRepository;
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+    @SpyBean
+    private ItemBookingSummaries itemBookingSummaries;
+
+    private User owner;
+
+    @BeforeEach
+    void beforeEach() {
+        long n = SEQUENCE.incrementAndGet();
+        owner = userRepository.save(new User(null, "owner" + n, "owner" + n + "@write.test"));
+    }
+
+    @Test
+    void committedItemIsIndexed() throws Exception {
+        ItemDto item = itemService.addItem(new ItemDto("Стремянка", "Стремянка алюминиевая", true, null, null), owner.getId());
+
+        assertEquals(List.of(item.getId()), itemSearchIndex.search("стремянка", 0, 10));
+    }
+
+    @Test
+    void failedSummaryRollsBackItemAndIndex() {
+        long items = itemRepository.count();
+        doThrow(new IllegalStateException("summary")).when(itemBookingSummaries).create(any());
+
+        assertThrows(IllegalStateException.class, () -> itemService.addItem(
+                new ItemDto("Рубанок", "Рубанок электрический", true, null, null), owner.getId()));
+
+        assertEquals(items, itemRepository.count());
+        assertTrue(itemSearchIndex.search("рубанок", 0, 10).isEmpty());
+    }
+}
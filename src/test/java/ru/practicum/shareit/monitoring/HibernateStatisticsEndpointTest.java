@@ -0,0 +1,45 @@
+package ru.practicum.shareit.monitoring;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HibernateStatisticsEndpointTest {
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    void beforeEach() {
+        entityManagerFactory = mock(EntityManagerFactory.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        statistics = mock(Statistics.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+    }
+
+    @Test
+    void resetIsRefusedUnlessEnabled() {
+        WebEndpointResponse<Void> response = new HibernateStatisticsEndpoint(entityManagerFactory, false).reset();
+
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, response.getStatus());
+        verify(statistics, never()).clear();
+    }
+
+    @Test
+    void resetClearsStatisticsWhenEnabled() {
+        WebEndpointResponse<Void> response = new HibernateStatisticsEndpoint(entityManagerFactory, true).reset();
+
+        assertEquals(WebEndpointResponse.STATUS_NO_CONTENT, response.getStatus());
+        verify(statistics).clear();
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestProfileTest {
+    @AfterEach
+    void afterEach() {
+        RequestProfile.end();
+    }
+
+    @Test
+    void mappingOutsideRequestJustRuns() {
+        assertEquals("dto", RequestProfile.mapping(() -> "dto"));
+        assertNull(RequestProfile.current());
+    }
+
+    @Test
+    void mappingTimeIsAdded() {
+        RequestProfile profile = RequestProfile.start();
+
+        assertEquals("dto", RequestProfile.mapping(() -> pause(2, "dto")));
+
+        assertTrue(profile.getMappingMillis() >= 2, profile.toString());
+    }
+
+    @Test
+    void nestedMappingIsCountedOnce() {
+        RequestProfile profile = RequestProfile.start();
+
+        long start = System.nanoTime();
+        RequestProfile.mapping(() -> pause(2, RequestProfile.mapping(() -> pause(2, "dto"))));
+        double elapsed = (System.nanoTime() - start) / 1_000_000.0;
+
+        assertTrue(profile.getMappingMillis() >= 4, profile.toString());
+        assertTrue(profile.getMappingMillis() <= elapsed, profile.toString());
+    }
+
+    @Test
+    void statementsInsideMappingCountAsDb() {
+        RequestProfile profile = RequestProfile.start();
+
+        RequestProfile.mapping(() -> {
+            profile.statementStarted();
+            pause(5, null);
+            profile.statementFinished();
+            return "dto";
+        });
+
+        assertEquals(1, profile.getStatements());
+        assertTrue(profile.getDbMillis() >= 5, profile.toString());
+        assertTrue(profile.getMappingMillis() < profile.getDbMillis(), profile.toString());
+    }
+
+    private static <T> T pause(long millis, T result) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.monitoring;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemJpaRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJpaRepository;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "shareit.sql.query-budgets.[ItemController.getItems]=0",
+        "logging.level.ru.practicum.shareit.monitoring.RequestProfileFilter=DEBUG"})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@ExtendWith(OutputCaptureExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class RequestProfilingTest {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserJpaRepository userRepository;
+    @Autowired
+    private ItemJpaRepository itemRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void beforeEach() {
+        long n = SEQUENCE.incrementAndGet();
+        owner = userRepository.save(new User(null, "owner" + n, "owner" + n + "@profile.test"));
+        itemRepository.save(new Item(null, "Дрель", "Дрель аккумуляторная", true, owner, null));
+    }
+
+    @Test
+    void jsonResponseReportsServerTiming() throws Exception {
+        MvcResult result = mvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        List<String> timings = result.getResponse().getHeaders(RequestProfile.SERVER_TIMING);
+        assertEquals(2, timings.size());
+        assertTrue(timings.get(0).matches("db;dur=\\d+\\.\\d{3};desc=\"[1-9]\\d* statements\""), timings.get(0));
+        assertTrue(timings.get(1).matches("mapping;dur=\\d+\\.\\d{3}"), timings.get(1));
+        assertTrue(Double.parseDouble(timings.get(1).substring("mapping;dur=".length())) > 0, timings.get(1));
+    }
+
+    @Test
+    void serializationIsLoggedWithBodySize(CapturedOutput output) throws Exception {
+        MvcResult result = mvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        int size = result.getResponse().getContentAsByteArray().length;
+        assertTrue(Pattern.compile("GET /items status=200 statements=\\d+ db_ms=\\d+\\.\\d{3} mapping_ms=\\d+\\.\\d{3} " +
+                "serialization_ms=\\d+\\.\\d{3} body_bytes=" + size + "\\b").matcher(output.getOut()).find());
+    }
+
+    @Test
+    void responseWithoutBodyReportsServerTiming() throws Exception {
+        User user = userRepository.save(new User(null, "user" + SEQUENCE.incrementAndGet(), "user@profile.test"));
+
+        MvcResult result = mvc.perform(delete("/users/{id}", user.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals(2, result.getResponse().getHeaders(RequestProfile.SERVER_TIMING).size());
+        assertTrue(result.getResponse().getHeader(RequestProfile.SERVER_TIMING).startsWith("db;"));
+    }
+
+    @Test
+    void exceededBudgetIsLogged(CapturedOutput output) throws Exception {
+        mvc.perform(get("/users/{id}", owner.getId())).andExpect(status().isOk());
+        assertFalse(output.getOut().contains("endpoint=UserController.getUserById"));
+
+        mvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId())).andExpect(status().isOk());
+
+        assertTrue(output.getOut().contains("endpoint=ItemController.getItems GET /items budget=0 statements="));
+    }
+}
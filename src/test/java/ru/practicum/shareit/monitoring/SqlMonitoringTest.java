@@ -0,0 +1,74 @@
+package ru.practicum.shareit.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJpaRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The threshold is zero, so every statement counts as slow.
+ */
+@SpringBootTest(properties = "shareit.sql.slow-query-threshold=0ms")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@ExtendWith(OutputCaptureExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class SqlMonitoringTest {
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserJpaRepository userRepository;
+
+    @Test
+    void slowStatementsAreLoggedWithCallerAndBinds(CapturedOutput output) throws Exception {
+        User user = userRepository.save(new User(null, "slow", "slow@monitoring.test"));
+
+        userService.getAllUsers();
+        bookingService.getAllBookings(user.getId(), "ALL", 0, 10);
+
+        assertTrue(output.getOut().contains("binds=0 success=true caller=UserServiceImpl.getAllUsers sql=select"));
+        assertTrue(Pattern.compile("binds=[1-9]\\d* success=true caller=BookingServiceImpl\\.\\w+ sql=select")
+                .matcher(output.getOut()).find());
+    }
+
+    @Test
+    void statisticsEndpointReportsAndResets() throws Exception {
+        userService.getAllUsers();
+
+        mvc.perform(get("/actuator/hibernate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled").value(true))
+                .andExpect(jsonPath("$.queries").value(greaterThan(0)))
+                .andExpect(jsonPath("$.secondLevelCache.hitRatio").isNumber())
+                .andExpect(jsonPath("$.slowestQueries[0].query").isString());
+
+        mvc.perform(delete("/actuator/hibernate")).andExpect(status().isNoContent());
+
+        mvc.perform(get("/actuator/hibernate"))
+                .andExpect(jsonPath("$.queries").value(0))
+                .andExpect(jsonPath("$.slowestQueries").isEmpty());
+    }
+}
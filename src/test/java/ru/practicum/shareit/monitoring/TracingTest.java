@@ -0,0 +1,144 @@
+package ru.practicum.shareit.monitoring;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemJpaRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserJpaRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+public class TracingTest {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    @TestConfiguration
+    static class InMemoryExporter {
+        @Bean
+        public InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private InMemorySpanExporter exporter;
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+    @Autowired
+    private UserJpaRepository userRepository;
+    @Autowired
+    private ItemJpaRepository itemRepository;
+
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void beforeEach() {
+        long n = SEQUENCE.incrementAndGet();
+        owner = userRepository.save(new User(null, "owner" + n, "owner" + n + "@tracing.test"));
+        item = itemRepository.save(new Item(null, "Дрель", "Дрель аккумуляторная", true, owner, null));
+        itemRepository.save(new Item(null, "Лестница", "Лестница складная", true, owner, null));
+        flush();
+        exporter.reset();
+    }
+
+    @Test
+    void getItemsIsTracedDownToSql() throws Exception {
+        mvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId())).andExpect(status().isOk());
+        List<SpanData> spans = flush();
+
+        SpanData controller = span(spans, "ItemController.getItems");
+        SpanData service = span(spans, "ItemServiceImpl.getItems");
+        SpanData repository = span(spans, "ItemJpaRepository.findViewsByOwnerId");
+
+        assertEquals(SpanKind.SERVER, controller.getKind());
+        assertFalse(controller.getParentSpanContext().isValid());
+        assertEquals(owner.getId(), controller.getAttributes().get(TracingAspect.USER_ID));
+        assertEquals("/items", controller.getAttributes().get(TracingAspect.HTTP_ROUTE));
+        assertEquals(controller.getSpanId(), service.getParentSpanId());
+        assertEquals(2L, service.getAttributes().get(TracingAspect.ROWS));
+        assertEquals(service.getSpanId(), repository.getParentSpanId());
+        assertEquals(owner.getId(), repository.getAttributes().get(AttributeKey.longKey("shareit.owner_id")));
+        assertEquals(2L, repository.getAttributes().get(TracingAspect.ROWS));
+
+        List<SpanData> statements = children(spans, repository);
+        assertEquals(1, statements.size());
+        assertEquals("sql", statements.get(0).getName());
+        assertTrue(statements.get(0).getAttributes().get(TracingQueryListener.DB_STATEMENT).startsWith("select"));
+    }
+
+    @Test
+    void itemIdsAreRecorded() throws Exception {
+        mvc.perform(get("/items/{itemId}", item.getId()).header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isOk());
+        List<SpanData> spans = flush();
+
+        assertEquals(item.getId(), span(spans, "ItemController.getItem").getAttributes().get(AttributeKey.longKey("shareit.item_id")));
+        assertEquals(item.getId(), span(spans, "ItemServiceImpl.getItem").getAttributes().get(AttributeKey.longKey("shareit.item_id")));
+        assertEquals(List.of(item.getId()), spans.stream()
+                .map(x -> x.getAttributes().get(AttributeKey.longArrayKey("shareit.item_ids")))
+                .filter(x -> x != null)
+                .findFirst()
+                .orElseThrow());
+    }
+
+    @Test
+    void failedCallsAreMarked() throws Exception {
+        mvc.perform(get("/items/{itemId}", Long.MAX_VALUE).header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isNotFound());
+        List<SpanData> spans = flush();
+
+        SpanData service = span(spans, "ItemServiceImpl.getItem");
+        assertEquals(StatusCode.ERROR, service.getStatus().getStatusCode());
+        assertEquals("ItemNotFoundException", service.getStatus().getDescription());
+    }
+
+    private List<SpanData> flush() {
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+        return exporter.getFinishedSpanItems();
+    }
+
+    private static SpanData span(List<SpanData> spans, String name) {
+        return spans.stream()
+                .filter(x -> x.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(name + " not found in " + names(spans)));
+    }
+
+    private static List<SpanData> children(List<SpanData> spans, SpanData parent) {
+        return spans.stream()
+                .filter(x -> x.getParentSpanId().equals(parent.getSpanId()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> names(List<SpanData> spans) {
+        return spans.stream().map(SpanData::getName).collect(Collectors.toList());
+    }
+}
@@ -9,8 +9,6 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.item.RequestNotCorrectException;
@@ -25,7 +23,9 @@ import ru.practicum.shareit.user.UserNotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserJpaRepository;
 import ru.practicum.shareit.utils.MyPageable;
+import ru.practicum.shareit.utils.PageCursor;
 import ru.practicum.shareit.utils.PaginationNotCorrectException;
+import ru.practicum.shareit.utils.Views;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -35,6 +35,8 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.item.ItemMapper.fromItemDto;
 import static ru.practicum.shareit.requests.ItemRequestMapper.toItemRequestDto;
@@ -121,12 +123,20 @@ public class ItemRequestServiceTest {
 
     @Test
     void getItemRequestDtos() throws Exception {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(itemRequestJpaRepository.findAll()).thenReturn(List.of(itemRequest));
-        when(itemRepository.findItemsByRequestId(1L)).thenReturn(List.of(item));
+        item.setRequest(itemRequest);
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
+        when(itemRequestJpaRepository.findViewsByRequestorId(1L)).thenReturn(List.of(Views.of(itemRequest)));
+        when(itemRepository.findViewsByRequestIdIn(List.of(1L))).thenReturn(List.of(Views.of(item)));
         List<ItemRequestDto> itemRequestDtos = itemRequestService.getItemRequestDtos(1L);
         assertEquals(1, itemRequestDtos.size());
-        assertEquals(itemRequestDto, itemRequestDtos.get(0));
+        assertEquals(toItemRequestDto(itemRequest, List.of(item)), itemRequestDtos.get(0));
+    }
+
+    @Test
+    void getItemRequestDtosWithoutRequests() throws Exception {
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
+        assertEquals(List.of(), itemRequestService.getItemRequestDtos(1L));
+        verify(itemRepository, never()).findViewsByRequestIdIn(any());
     }
 
     @Test
@@ -136,19 +146,19 @@ public class ItemRequestServiceTest {
 
     @Test
     void getAllItemRequestDtosIncorrectPagination() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
         assertThrows(PaginationNotCorrectException.class, () -> itemRequestService.getAllItemRequestDtos(1L, 0, 0));
     }
 
     @Test
     void getAllItemRequestDtosPagination() throws Exception {
         itemRequest.setRequestor(user2);
-        Sort sortByCreated = Sort.by(Sort.Direction.DESC, "created");
-        Pageable pageable = new MyPageable(0, 1, sortByCreated);
-        Page<ItemRequest> requestPage = new PageImpl<>(List.of(itemRequest));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(itemRequestJpaRepository.findAll(pageable)).thenReturn(requestPage);
-        when(itemRepository.findItemsByRequestId(1L)).thenReturn(List.of(item));
+        item.setRequest(itemRequest);
+        Pageable pageable = new MyPageable(0, 1, Sort.unsorted());
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
+        when(itemRequestJpaRepository.seekOtherUsersRequests(1L, PageCursor.LATEST, Long.MAX_VALUE, pageable))
+                .thenReturn(List.of(Views.of(itemRequest)));
+        when(itemRepository.findViewsByRequestIdIn(List.of(1L))).thenReturn(List.of(Views.of(item)));
 
         List<ItemRequestDto> itemRequestDtos = itemRequestService.getAllItemRequestDtos(1L, 0, 1);
         assertEquals(1, itemRequestDtos.size());
@@ -163,7 +173,7 @@ public class ItemRequestServiceTest {
 
     @Test
     void getItemRequestById() throws Exception {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
         when(itemRequestJpaRepository.findById(1L)).thenReturn(Optional.of(itemRequest));
         when(itemRepository.findItemsByRequestId(1L)).thenReturn(List.of(item));
         ItemRequestDto itemReqDto = itemRequestService.getItemRequestById(1L, 1L);
@@ -12,6 +12,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.user.controller.UserController;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.BatchResultDto;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
@@ -64,6 +65,22 @@ public class UserControllerTest {
         verify(userService, times(1)).addUser(userDto);
     }
 
+    @Test
+    void addUsers() throws Exception {
+        when(userService.addUsers(List.of(userDto, userSecondDto)))
+                .thenReturn(List.of(new BatchResultDto(null, 1L, null), new BatchResultDto(null, 2L, null)));
+
+        mockMvc.perform(post("/users/batch")
+                        .content(mapper.writeValueAsString(List.of(userDto, userSecondDto)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(List.of(
+                        new BatchResultDto(0, 1L, null),
+                        new BatchResultDto(1, 2L, null)))));
+    }
+
     @Test
     void getAllUsers() throws Exception {
 
@@ -3,17 +3,25 @@ package ru.practicum.shareit.user;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserJpaRepository;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.utils.BatchResultDto;
+import ru.practicum.shareit.utils.Views;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ru.practicum.shareit.user.UserMapper.toUserDto;
 
@@ -26,7 +34,7 @@ public class UserServiceTest {
     @BeforeEach
     void beforeEach() {
         userRepository = mock(UserJpaRepository.class);
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, new ConcurrentMapCacheManager());
         user = new User(1L, "user 1", "user1@email");
         userDto = toUserDto(user);
     }
@@ -59,6 +67,56 @@ public class UserServiceTest {
         assertEquals(userDto, userDtoSample);
     }
 
+    @Test
+    void addUsers() {
+        when(userRepository.findByEmailIn(any())).thenReturn(List.of(new User(5L, "taken", "taken@mail.ru")));
+        when(userRepository.saveAll(any())).thenAnswer(x -> {
+            List<User> users = x.getArgument(0);
+            long id = 10;
+            for (User saved : users) {
+                saved.setId(id++);
+            }
+            return users;
+        });
+
+        List<BatchResultDto> results = userService.addUsers(Arrays.asList(
+                new UserDto(null, "first", "first@mail.ru"),
+                new UserDto(null, "again", "first@mail.ru"),
+                new UserDto(null, "taken", "taken@mail.ru"),
+                new UserDto(null, "broken", "broken.mail.ru"),
+                null,
+                new UserDto(99L, "second", "second@mail.ru")));
+
+        assertEquals(new BatchResultDto(null, 10L, null), results.get(0));
+        assertEquals("пользователь с таким Email уже существует", results.get(1).getError());
+        assertEquals("пользователь с таким Email уже существует", results.get(2).getError());
+        assertEquals("некорректный Email", results.get(3).getError());
+        assertEquals("данные о пользователе указаны некорректно", results.get(4).getError());
+        assertEquals(new BatchResultDto(null, 11L, null), results.get(5));
+        verify(userRepository, times(1)).findByEmailIn(any());
+        verify(userRepository, times(1)).saveAll(any());
+    }
+
+    @Test
+    void addUsersFallsBackToSingleInsertsOnConflict() {
+        when(userRepository.saveAll(any())).thenThrow(new DataIntegrityViolationException("uq_user_email"));
+        when(userRepository.save(any())).thenAnswer(x -> {
+            User saved = x.getArgument(0);
+            if (saved.getEmail().equals("race@mail.ru")) {
+                throw new DataIntegrityViolationException("uq_user_email");
+            }
+            saved.setId(7L);
+            return saved;
+        });
+
+        List<BatchResultDto> results = userService.addUsers(List.of(
+                new UserDto(null, "race", "race@mail.ru"),
+                new UserDto(null, "ok", "ok@mail.ru")));
+
+        assertEquals("пользователь с таким Email уже существует", results.get(0).getError());
+        assertEquals(7L, results.get(1).getId());
+    }
+
     @Test
     void addUserEmptyEmail() {
         user.setEmail("");
@@ -114,7 +172,7 @@ public class UserServiceTest {
     @Test
     void getUserById() throws Exception {
         when(userRepository.save(user)).thenReturn(user);
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.findViewById(1L)).thenReturn(Optional.of(Views.of(user)));
         UserDto userDtoSample = userService.getUserById(user.getId());
 
         assertNotNull(userDto);
@@ -123,7 +181,7 @@ public class UserServiceTest {
 
     @Test
     void getUserByIncorrectId() {
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(userRepository.findViewById(999L)).thenReturn(Optional.empty());
         user.setId(999L);
         assertThrows(UserNotFoundException.class, () -> userService.getUserById(999L));
     }
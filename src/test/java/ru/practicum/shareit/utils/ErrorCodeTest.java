@@ -0,0 +1,31 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.user.UserNotFoundException;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ErrorCodeTest {
+    @Test
+    void everyCodeHasItsOwnTitle() {
+        assertEquals(ErrorCode.values().length, Arrays.stream(ErrorCode.values())
+                .map(ErrorCode::getError)
+                .collect(Collectors.toSet())
+                .size());
+    }
+
+    @Test
+    void sharedExceptionCollectsNoState() {
+        UserNotFoundException e = UserNotFoundException.NOT_EXISTS;
+
+        e.addSuppressed(new IllegalStateException());
+        e.fillInStackTrace();
+
+        assertEquals(0, e.getSuppressed().length);
+        assertEquals(0, e.getStackTrace().length);
+        assertThrows(IllegalStateException.class, () -> e.initCause(new IllegalStateException()));
+    }
+}
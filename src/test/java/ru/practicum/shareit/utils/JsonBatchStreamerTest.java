@@ -0,0 +1,129 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.ValidationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonBatchStreamerTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final JsonBatchStreamer streamer = new JsonBatchStreamer(mapper, 3);
+
+    @Test
+    void streamsInChunksAndNumbersRows() throws Exception {
+        List<Integer> chunkSizes = new ArrayList<>();
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 7; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"name\":\"item").append(i).append("\"}");
+        }
+        json.append("]");
+
+        List<BatchResultDto> results = run(json.toString(), chunk -> {
+            chunkSizes.add(chunk.size());
+            return chunk.stream()
+                    .map(x -> new BatchResultDto(null, Long.parseLong(x.getName().substring(4)), null))
+                    .collect(Collectors.toList());
+        });
+
+        assertEquals(List.of(3, 3, 1), chunkSizes);
+        assertEquals(7, results.size());
+        for (int i = 0; i < 7; i++) {
+            assertEquals(new BatchResultDto(i, (long) i, null), results.get(i));
+        }
+    }
+
+    @Test
+    void passesNonObjectElementsAsNull() throws Exception {
+        List<BatchResultDto> results = run("[{\"name\":\"a\"}, 5, [1, {\"x\": 2}], null]", chunk -> chunk.stream()
+                .map(x -> x == null ? BatchResultDto.failed("null") : new BatchResultDto(null, 1L, null))
+                .collect(Collectors.toList()));
+
+        assertEquals(4, results.size());
+        assertNull(results.get(0).getError());
+        assertEquals("null", results.get(1).getError());
+        assertEquals("null", results.get(2).getError());
+        assertEquals("null", results.get(3).getError());
+    }
+
+    @Test
+    void stopsWithErrorRowOnBrokenJson() throws Exception {
+        List<BatchResultDto> results = run("[{\"name\":\"a\"}, {\"name\":", chunk -> chunk.stream()
+                .map(x -> new BatchResultDto(null, 1L, null))
+                .collect(Collectors.toList()));
+
+        assertEquals(2, results.size());
+        assertEquals(1L, results.get(0).getId());
+        assertEquals(1, results.get(1).getIndex());
+        assertTrue(results.get(1).getError().startsWith("Некорректный JSON"));
+    }
+
+    @Test
+    void badlyTypedRowGetsErrorAndImportGoesOn() throws Exception {
+        List<ItemDto> handled = new ArrayList<>();
+        List<BatchResultDto> results = run("[{\"name\":\"a\"}, {\"name\":\"b\",\"available\":\"да\"}, " +
+                "{\"name\":\"c\",\"requestId\":\"x\"}, {\"name\":\"d\"}, {\"name\":\"e\"}]", chunk -> {
+            handled.addAll(chunk);
+            return chunk.stream()
+                    .map(x -> new BatchResultDto(null, (long) x.getName().charAt(0), null))
+                    .collect(Collectors.toList());
+        });
+
+        assertEquals(List.of("a", "d", "e"), handled.stream().map(ItemDto::getName).collect(Collectors.toList()));
+        assertEquals(5, results.size());
+        assertEquals(new BatchResultDto(0, (long) 'a', null), results.get(0));
+        assertTrue(results.get(1).getError().startsWith("Некорректные данные"));
+        assertTrue(results.get(2).getError().startsWith("Некорректные данные"));
+        assertEquals(new BatchResultDto(3, (long) 'd', null), results.get(3));
+        assertEquals(new BatchResultDto(4, (long) 'e', null), results.get(4));
+    }
+
+    @Test
+    void handlerFailureAfterFirstChunkClosesTheArray() throws Exception {
+        List<BatchResultDto> results = run("[{}, {}, {}, {}, {}]", chunk -> {
+            if (chunk.size() < 3) {
+                throw new IllegalStateException("boom");
+            }
+            return chunk.stream().map(x -> new BatchResultDto(null, 1L, null)).collect(Collectors.toList());
+        });
+
+        assertEquals(4, results.size());
+        assertEquals(3, results.get(3).getIndex());
+        assertTrue(results.get(3).getError().startsWith("Импорт прерван"));
+    }
+
+    @Test
+    void handlerFailureOnFirstChunkIsThrown() {
+        assertThrows(IllegalStateException.class, () -> run("[{}]", chunk -> {
+            throw new IllegalStateException("boom");
+        }));
+    }
+
+    @Test
+    void emptyArray() throws Exception {
+        assertEquals(List.of(), run("[]", chunk -> {
+            throw new IllegalStateException("handler should not be called");
+        }));
+    }
+
+    @Test
+    void rejectsBodyThatIsNotArray() {
+        assertThrows(ValidationException.class, () -> run("{\"name\":\"a\"}", chunk -> List.of()));
+    }
+
+    private List<BatchResultDto> run(String json, JsonBatchStreamer.ChunkHandler<ItemDto, RuntimeException> handler) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        streamer.stream(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), out, ItemDto.class, handler);
+        return mapper.readValue(out.toByteArray(), new TypeReference<>() {
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.utils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ * Registered for all tests through {@code hibernate.session_factory.statement_inspector} in the test properties.
+ */
+public class QueryCounter implements StatementInspector {
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static int getCount() {
+        return STATEMENTS.get().size();
+    }
+
+    public static List<String> getStatements() {
+        return List.copyOf(STATEMENTS.get());
+    }
+
+    /**
+     * Number of statements issued by the call; the counter is reset before it runs.
+     */
+    public static int count(Executable call) throws Throwable {
+        reset();
+        call.execute();
+        return getCount();
+    }
+
+    /**
+     * Fails if more statements than allowed have been issued since the last reset, listing them.
+     */
+    public static void assertMaxQueries(int max) {
+        if (getCount() > max) {
+            fail("expected at most " + max + " queries, but " + getCount() + " were issued:\n" + describe());
+        }
+    }
+
+    public static String describe() {
+        return String.join("\n", STATEMENTS.get());
+    }
+}
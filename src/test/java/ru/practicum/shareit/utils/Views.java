@@ -0,0 +1,77 @@
+package ru.practicum.shareit.utils;
+
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingView;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentView;
+import ru.practicum.shareit.item.repository.ItemView;
+import ru.practicum.shareit.requests.model.ItemRequest;
+import ru.practicum.shareit.requests.repository.ItemRequestView;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserView;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Projection rows built from entities, as the repositories would return them for the same data.
+ */
+public class Views {
+    private static final ProjectionFactory FACTORY = new SpelAwareProxyProjectionFactory();
+
+    public static BookingView of(Booking booking) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", booking.getId());
+        row.put("start", booking.getStart());
+        row.put("end", booking.getEnd());
+        row.put("status", booking.getStatus());
+        row.put("itemId", booking.getItem().getId());
+        row.put("itemName", booking.getItem().getName());
+        row.put("itemDescription", booking.getItem().getDescription());
+        row.put("itemAvailable", booking.getItem().getAvailable());
+        row.put("itemRequestId", booking.getItem().getRequest() == null ? null : booking.getItem().getRequest().getId());
+        row.put("bookerId", booking.getBooker().getId());
+        row.put("bookerName", booking.getBooker().getName());
+        row.put("bookerEmail", booking.getBooker().getEmail());
+        return FACTORY.createProjection(BookingView.class, row);
+    }
+
+    public static ItemView of(Item item) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", item.getId());
+        row.put("name", item.getName());
+        row.put("description", item.getDescription());
+        row.put("available", item.getAvailable());
+        row.put("requestId", item.getRequest() == null ? null : item.getRequest().getId());
+        row.put("ownerId", item.getOwner() == null ? null : item.getOwner().getId());
+        return FACTORY.createProjection(ItemView.class, row);
+    }
+
+    public static CommentView of(Comment comment) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", comment.getId());
+        row.put("text", comment.getText());
+        row.put("authorName", comment.getAuthor().getName());
+        return FACTORY.createProjection(CommentView.class, row);
+    }
+
+    public static ItemRequestView of(ItemRequest request) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", request.getId());
+        row.put("description", request.getDescription());
+        row.put("requestorId", request.getRequestor().getId());
+        row.put("created", request.getCreated());
+        return FACTORY.createProjection(ItemRequestView.class, row);
+    }
+
+    public static UserView of(User user) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", user.getId());
+        row.put("name", user.getName());
+        row.put("email", user.getEmail());
+        return FACTORY.createProjection(UserView.class, row);
+    }
+}
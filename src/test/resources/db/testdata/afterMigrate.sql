@@ -0,0 +1,21 @@
+--Для интеграционных тестов
+insert into users (id, user_name, email)
+values (1, 'Sveta', 'mail@mail.ru'), (2, 'User', 'mailq@mail.ru');
+
+insert into requests (id, description, created, requestor_id)
+values (1, 'description', '2022-10-29 12:54:13', 1);
+
+insert into items (id, item_name, description, available, owner_id, request_id)
+values (1, 'name', 'description', true, 1, 1);
+
+insert into booking (id, booking_start, booking_end, item_id, booker_id, status)
+values (1, '2022-11-03 12:54:13', '2022-11-27 12:54:13', 1, 1, 'APPROVED'),
+       (2, '2022-12-03 12:54:13', '2022-12-27 12:54:13', 1, 1, 'APPROVED');
+
+alter sequence users_seq restart with 3;
+alter sequence requests_seq restart with 2;
+alter sequence items_seq restart with 2;
+alter sequence booking_seq restart with 3;
+
+insert into item_booking_summary (item_id, valid_until)
+values (1, '1970-01-01 00:00:00');